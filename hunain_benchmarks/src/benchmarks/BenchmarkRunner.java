@@ -0,0 +1,40 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Launches the JMH benchmarks of this project with allocation profiling
+ * (the GC profiler reports gc.alloc.rate.norm, bytes allocated per
+ * operation) and writes machine-readable results.
+ *
+ * Usage: BenchmarkRunner [include-regex] [result-file]
+ *
+ * The include pattern selects benchmarks by class or method name and
+ * defaults to every benchmark. The result file defaults to
+ * jmh-results.json; a name ending in .csv produces CSV instead of JSON.
+ *
+ * The project expects jmh-core, jmh-generator-annprocess and their
+ * dependencies (jopt-simple, commons-math3) in lib/; see .classpath.
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException {
+		String include = (args.length > 0) ? args[0] : ".*";
+		String resultFile = (args.length > 1) ? args[1] : "jmh-results.json";
+		ResultFormatType format = resultFile.endsWith(".csv") ? ResultFormatType.CSV : ResultFormatType.JSON;
+
+		Options options = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)		//allocation rate per operation alongside the timings
+				.resultFormat(format)
+				.result(resultFile)
+				.build();
+		new Runner(options).run();
+	}
+
+}
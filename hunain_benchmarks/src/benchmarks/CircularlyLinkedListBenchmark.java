@@ -0,0 +1,75 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructures.CircularlyLinkedList;
+
+/**
+ * JMH benchmarks for datastructures.CircularlyLinkedList.
+ *
+ * The add/remove benchmarks pair an insertion with a removal so the list
+ * stays at n elements for the whole run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CircularlyLinkedListBenchmark {
+
+	@Param({"10", "1000", "100000", "10000000"})
+	public int n;
+
+	private CircularlyLinkedList<Integer> list;
+	private Integer element;
+
+	@Setup
+	public void setup() {
+		list = new CircularlyLinkedList<Integer>();
+		for (int i = 0; i < n; i++)
+			list.addLast(i);
+		element = n;		//boxed once so the benchmarks measure the list, not Integer.valueOf
+	}
+
+	@Benchmark
+	public Integer rotate() {
+		list.rotate();
+		return list.first();
+	}
+
+	@Benchmark
+	public Integer addFirstRemoveFirst() {
+		list.addFirst(element);
+		return list.removeFirst();
+	}
+
+	@Benchmark
+	public Integer addLastRemoveFirst() {
+		list.addLast(element);
+		return list.removeFirst();
+	}
+
+	@Benchmark
+	public CircularlyLinkedList<Integer> cloneList() {
+		return list.clone();
+	}
+
+	@Benchmark
+	public String toStringList() {
+		return list.toString();
+	}
+
+}
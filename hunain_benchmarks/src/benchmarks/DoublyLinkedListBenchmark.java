@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructures.DoublyLinkedList;
+
+/**
+ * JMH benchmarks for datastructures.DoublyLinkedList.
+ *
+ * The add/remove benchmarks pair an insertion with a removal so the list
+ * stays at n elements for the whole run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DoublyLinkedListBenchmark {
+
+	@Param({"10", "1000", "100000", "10000000"})
+	public int n;
+
+	private DoublyLinkedList<Integer> list;
+	private Integer element;
+
+	@Setup
+	public void setup() {
+		list = filled(n);
+		element = n;		//boxed once so the benchmarks measure the list, not Integer.valueOf
+	}
+
+	/** Returns a list holding 0, 1, ..., n-1. */
+	static DoublyLinkedList<Integer> filled(int n) {
+		DoublyLinkedList<Integer> list = new DoublyLinkedList<Integer>();
+		for (int i = 0; i < n; i++)
+			list.addLast(i);
+		return list;
+	}
+
+	@Benchmark
+	public Integer addFirstRemoveFirst() {
+		list.addFirst(element);
+		return list.removeFirst();
+	}
+
+	@Benchmark
+	public Integer addLastRemoveLast() {
+		list.addLast(element);
+		return list.removeLast();
+	}
+
+	@Benchmark
+	public Integer addLastRemoveFirst() {
+		list.addLast(element);
+		return list.removeFirst();
+	}
+
+	@Benchmark
+	public Integer addFirstRemoveLast() {
+		list.addFirst(element);
+		return list.removeLast();
+	}
+
+	@Benchmark
+	public String toStringList() {
+		return list.toString();
+	}
+
+}
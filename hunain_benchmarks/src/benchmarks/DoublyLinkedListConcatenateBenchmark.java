@@ -0,0 +1,53 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructures.DoublyLinkedList;
+
+/**
+ * JMH benchmark for DoublyLinkedList.concatenate.
+ *
+ * concatenate drains both inputs, so every invocation gets freshly built
+ * halves. JMH keeps the per-invocation setup out of the timing, but for
+ * small n the timer overhead is comparable to the operation itself, so
+ * read those rows as an upper bound.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DoublyLinkedListConcatenateBenchmark {
+
+	@Param({"10", "1000", "100000", "10000000"})
+	public int n;
+
+	private DoublyLinkedList<Integer> first;
+	private DoublyLinkedList<Integer> second;
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		first = DoublyLinkedListBenchmark.filled(n / 2);
+		second = DoublyLinkedListBenchmark.filled(n - n / 2);
+	}
+
+	@Benchmark
+	public DoublyLinkedList<Integer> concatenate() {
+		return first.concatenate(second);
+	}
+
+}
@@ -0,0 +1,126 @@
+package benchmarks;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Baseline JMH benchmarks for java.util.ArrayDeque and java.util.LinkedList,
+ * running the same operations, sizes and settings as the linked list
+ * benchmarks so their rows can be compared directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class JdkDequeBenchmark {
+
+	@Param({"10", "1000", "100000", "10000000"})
+	public int n;
+
+	@Param({"ArrayDeque", "LinkedList"})
+	public String implementation;
+
+	private Deque<Integer> deque;
+	private Deque<Integer> copy;		//equal contents, separate storage
+	private Integer element;
+
+	@Setup
+	public void setup() {
+		deque = create();
+		for (int i = 0; i < n; i++)
+			deque.addLast(i);
+		copy = create();
+		copy.addAll(deque);
+		element = n;		//boxed once so the benchmarks measure the deque, not Integer.valueOf
+	}
+
+	private Deque<Integer> create() {
+		return implementation.equals("ArrayDeque") ? new ArrayDeque<Integer>() : new LinkedList<Integer>();
+	}
+
+	@Benchmark
+	public Integer addFirstRemoveFirst() {
+		deque.addFirst(element);
+		return deque.removeFirst();
+	}
+
+	@Benchmark
+	public Integer addLastRemoveLast() {
+		deque.addLast(element);
+		return deque.removeLast();
+	}
+
+	@Benchmark
+	public Integer addLastRemoveFirst() {
+		deque.addLast(element);
+		return deque.removeFirst();
+	}
+
+	@Benchmark
+	public Integer addFirstRemoveLast() {
+		deque.addFirst(element);
+		return deque.removeLast();
+	}
+
+	@Benchmark
+	public Integer rotate() {		//the CircularlyLinkedList.rotate equivalent
+		deque.addLast(deque.removeFirst());
+		return deque.peekFirst();
+	}
+
+	@Benchmark
+	public Object cloneDeque() {
+		return (deque instanceof ArrayDeque) ? ((ArrayDeque<Integer>) deque).clone()
+				: ((LinkedList<Integer>) deque).clone();
+	}
+
+	@Benchmark
+	public boolean equalsDeque() {		//ArrayDeque has identity equals, so compare element by element
+		return implementation.equals("ArrayDeque") ? sameElements(deque, copy) : deque.equals(copy);
+	}
+
+	@Benchmark
+	public int hashCodeDeque() {		//ArrayDeque has identity hashCode, so hash the elements
+		return implementation.equals("ArrayDeque") ? listHash(deque) : deque.hashCode();
+	}
+
+	/** Compares two deques with paired iterators, as List.equals does, without copying them. */
+	private static boolean sameElements(Deque<Integer> a, Deque<Integer> b) {
+		if (a.size() != b.size()) return false;
+		Iterator<Integer> walkA = a.iterator(), walkB = b.iterator();
+		while (walkA.hasNext())
+			if (!walkA.next().equals(walkB.next())) return false;
+		return true;
+	}
+
+	/** Hashes the elements the way List.hashCode does, without copying them. */
+	private static int listHash(Deque<Integer> deque) {
+		int h = 1;
+		for (Integer e : deque)
+			h = 31 * h + e.hashCode();
+		return h;
+	}
+
+	@Benchmark
+	public String toStringDeque() {
+		return deque.toString();
+	}
+
+}
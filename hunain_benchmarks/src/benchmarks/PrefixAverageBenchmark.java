@@ -0,0 +1,62 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Ex_2.PrefixAverage;
+
+/**
+ * JMH benchmarks for Ex_2.PrefixAverage, over the same doubling sizes
+ * and input (every entry 1.2) as PrefixAverage.main. Scores are in
+ * milliseconds per call, the unit the PrefixAverage chart plots.
+ *
+ * To feed the chart, write CSV results and pass the file to PrefixAverage:
+ *
+ *    BenchmarkRunner PrefixAverageBenchmark prefix-averages.csv
+ *    PrefixAverage prefix-averages.csv
+ *
+ * prefixAverage1 is quadratic, so its largest sizes take minutes per
+ * iteration; warmup and measurement counts are kept low for that reason.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixAverageBenchmark {
+
+	@Param({"1000", "2000", "4000", "8000", "16000", "32000", "64000", "128000", "256000", "512000"})
+	public int n;
+
+	private double[] numbers;
+
+	@Setup
+	public void setup() {
+		numbers = new double[n];
+		Arrays.fill(numbers, 1.2);
+	}
+
+	@Benchmark
+	public double[] prefixAverage1() {
+		return PrefixAverage.prefixAverage1(numbers);
+	}
+
+	@Benchmark
+	public double[] prefixAverage2() {
+		return PrefixAverage.prefixAverage2(numbers);
+	}
+
+}
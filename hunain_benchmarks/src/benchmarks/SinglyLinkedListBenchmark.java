@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructures.SinglyLinkedList;
+
+/**
+ * JMH benchmarks for datastructures.SinglyLinkedList.
+ *
+ * The add/remove benchmarks pair an insertion with a removal so the list
+ * stays at n elements for the whole run. swapFirstAndLast swaps by
+ * index, so it includes the walk to the last node.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SinglyLinkedListBenchmark {
+
+	@Param({"10", "1000", "100000", "10000000"})
+	public int n;
+
+	private SinglyLinkedList<Integer> list;
+	private SinglyLinkedList<Integer> copy;		//equal contents, separate nodes
+	private Integer element;
+
+	@Setup
+	public void setup() throws CloneNotSupportedException {
+		list = new SinglyLinkedList<Integer>();
+		for (int i = 0; i < n; i++)
+			list.addLast(i);
+		copy = list.clone();
+		element = n;		//boxed once so the benchmarks measure the list, not Integer.valueOf
+	}
+
+	@Benchmark
+	public Integer addLastRemoveFirst() {
+		list.addLast(element);
+		return list.removeFirst();
+	}
+
+	@Benchmark
+	public Integer addFirstRemoveFirst() {
+		list.addFirst(element);
+		return list.removeFirst();
+	}
+
+	@Benchmark
+	public SinglyLinkedList.SwapResult swapFirstAndLast() {
+		return list.swapNodes(0, n - 1);
+	}
+
+	@Benchmark
+	public SinglyLinkedList<Integer> cloneList() throws CloneNotSupportedException {
+		return list.clone();
+	}
+
+	@Benchmark
+	public boolean equalsList() {
+		return list.equals(copy);
+	}
+
+	@Benchmark
+	public int hashCodeList() {
+		return list.hashCode();
+	}
+
+	@Benchmark
+	public String toStringList() {
+		return list.toString();
+	}
+
+}
@@ -22,6 +22,8 @@
  */
 package datastructures;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 
 /**
  * An implementation of a circularly linked list.
@@ -83,8 +85,30 @@ public class CircularlyLinkedList<E> {
   /** Number of nodes in the list */
   private int size = 0;                         // number of nodes in the list
 
+  /** Whether the nodes may also be referenced by a snapshot */
+  private boolean shared = false;               // copy the ring before changing any links
+
+  /** Whether snapshots may be taken by threads other than the one updating the list */
+  private final boolean concurrentSnapshots;
+
+  /** The tail and size as of the last completed update, or null unless concurrentSnapshots */
+  private volatile Root<E> root;
+
   /** Constructs an initially empty list. */
-  public CircularlyLinkedList() { }             // constructs an initially empty list
+  public CircularlyLinkedList() { this(false); }  // constructs an initially empty list
+
+  /**
+   * Constructs an initially empty list, optionally in concurrent snapshot
+   * mode. In that mode every update publishes the new tail and size for
+   * snapshot() to pick up, at the cost of a small allocation and a CAS per
+   * update; without it, updates do no extra work and snapshots must be
+   * taken by the thread that updates the list.
+   * @param concurrentSnapshots  true to allow snapshot() from any thread
+   */
+  public CircularlyLinkedList(boolean concurrentSnapshots) {
+    this.concurrentSnapshots = concurrentSnapshots;
+    if (concurrentSnapshots) root = new Root<>(null, 0);
+  }
 
   // access methods
   /**
@@ -122,8 +146,11 @@ public class CircularlyLinkedList<E> {
    * Rotate the first element to the back of the list.
    */
   public void rotate() {         // rotate the first element to the back of the list
-    if (tail != null)                // if empty, do nothing
+    if (tail != null) {              // if empty, do nothing
+      retireRoot();
       tail = tail.getNext();         // the old head becomes the new tail
+      publish();
+    }
   }
 
   /**
@@ -131,14 +158,9 @@ public class CircularlyLinkedList<E> {
    * @param e  the new element to add
    */
   public void addFirst(E e) {                // adds element e to the front of the list
-    if (size == 0) {
-      tail = new Node<>(e, null);
-      tail.setNext(tail);                     // link to itself circularly
-    } else {
-      Node<E> newest = new Node<>(e, tail.getNext());
-      tail.setNext(newest);
-    }
-    size++;
+    retireRoot();
+    linkFirst(e);
+    publish();
   }
 
   /**
@@ -146,8 +168,23 @@ public class CircularlyLinkedList<E> {
    * @param e  the new element to add
    */
   public void addLast(E e) { // adds element e to the end of the list
-    addFirst(e);             // insert new element at front of list
+    retireRoot();
+    linkFirst(e);            // insert new element at front of list
     tail = tail.getNext();   // now new element becomes the tail
+    publish();
+  }
+
+  /** Links a new node holding e after the tail, copying a shared ring first. */
+  private void linkFirst(E e) {
+    unshare();
+    if (size == 0) {
+      tail = new Node<>(e, null);
+      tail.setNext(tail);                     // link to itself circularly
+    } else {
+      Node<E> newest = new Node<>(e, tail.getNext());
+      tail.setNext(newest);
+    }
+    size++;
   }
 
   /**
@@ -156,10 +193,13 @@ public class CircularlyLinkedList<E> {
    */
   public E removeFirst() {                   // removes and returns the first element
     if (isEmpty()) return null;              // nothing to remove
+    retireRoot();
+    unshare();
     Node<E> head = tail.getNext();
     if (head == tail) tail = null;           // must be the only node left
     else tail.setNext(head.getNext());       // removes "head" from the list
     size--;
+    publish();
     return head.getElement();
   }
 
@@ -181,24 +221,126 @@ public class CircularlyLinkedList<E> {
     return sb.toString();
   }
   
+  /**
+   * Produces an independent copy of the list in a single read-only pass
+   * over its ring; this list is not modified along the way.
+   * @return a list with the same elements, whose nodes are not shared with this one
+   */
   public CircularlyLinkedList<E> clone() {
-	  CircularlyLinkedList<E> new_cll = new CircularlyLinkedList<E>();
-	  
-	  if (size == 0) {
-		  return new_cll;
-	  } else if (size == 1) {
-		  new_cll.addFirst(this.last());
-		 return new_cll; 
-	  } else {
-		  for (int i = 0; i < size; i++) {
-			  new_cll.addLast(this.last());
-			  this.rotate(); //rotate each time to give new element including last time to get back in place
-		  }
-		  new_cll.rotate(); //adds the final rotate to end up at what current CLL's tail should be.
-		  return new_cll;
-		  //unfortunately not too many comments to add to this implementation, it was the easiest of the three.
+	  CircularlyLinkedList<E> new_cll = new CircularlyLinkedList<E>(concurrentSnapshots);
+	  new_cll.tail = copyRing(tail);
+	  new_cll.size = size;
+	  new_cll.publish();
+	  return new_cll;
+  }
+
+  /**
+   * Returns a copy-on-write snapshot of the list in O(1) time. The
+   * snapshot shares this list's nodes until either list is structurally
+   * modified, at which point the modified list first copies the ring for
+   * itself; rotate only moves the tail reference, so it never triggers a
+   * copy. By default it must be called by the thread that updates the
+   * list. A list constructed in concurrent snapshot mode also lets any
+   * thread call it while a single writer thread keeps rotating, adding or
+   * removing: the snapshot captures the list as of the writer's last
+   * completed update.
+   *
+   * In that mode the writer publishes its tail and size in an immutable
+   * Root after each update, and retires that root before starting the
+   * next one. A reader claims the current root by moving it from LIVE to
+   * TAKEN; a writer that then fails to retire it knows its nodes are
+   * shared and copies them before changing any links, so the snapshot
+   * never sees a change.
+   * @return a list with the same elements and cursor as this one, in the same mode
+   */
+  public CircularlyLinkedList<E> snapshot() {
+	  CircularlyLinkedList<E> snap = new CircularlyLinkedList<E>(concurrentSnapshots);
+	  if (!concurrentSnapshots) {
+		  snap.tail = tail;
+		  snap.size = size;
+		  shared = snap.shared = (tail != null);   // both lists must copy before their next structural change
+		  return snap;
+	  }
+	  Root<E> r;
+	  while (true) {
+		  r = root;
+		  int state = r.state;
+		  if (state == Root.TAKEN || (state == Root.LIVE && Root.STATE.compareAndSet(r, Root.LIVE, Root.TAKEN)))
+			  break;
+		  Thread.onSpinWait();         // the writer is mid-update; its next root is coming
+	  }
+	  snap.tail = r.tail;
+	  snap.size = r.size;
+	  snap.shared = (r.tail != null);   // the snapshot must copy before its own first structural change
+	  snap.publish();
+	  return snap;
+  }
+
+  /**
+   * In concurrent snapshot mode, stops snapshots from claiming the current
+   * root before an update. If a snapshot already claimed it, the nodes are
+   * shared from now on.
+   */
+  private void retireRoot() {
+	  if (concurrentSnapshots && !Root.STATE.compareAndSet(root, Root.LIVE, Root.RETIRED))
+		  shared = true;
+  }
+
+  /** In concurrent snapshot mode, makes the result of an update visible to snapshots taken by other threads. */
+  private void publish() {
+	  if (concurrentSnapshots)
+		  root = new Root<>(tail, size);
+  }
+
+  /**
+   * An immutable view of the tail and size, as published by the writer.
+   * Its nodes are not changed while it is LIVE or TAKEN.
+   */
+  private static final class Root<E> {
+	  static final int LIVE = 0, TAKEN = 1, RETIRED = 2;
+
+	  /** Updates state in place, so publishing allocates only the Root itself */
+	  @SuppressWarnings("rawtypes")
+	  static final AtomicIntegerFieldUpdater<Root> STATE = AtomicIntegerFieldUpdater.newUpdater(Root.class, "state");
+
+	  final Node<E> tail;
+	  final int size;
+	  volatile int state = LIVE;
+
+	  Root(Node<E> tail, int size) {
+		  this.tail = tail;
+		  this.size = size;
 	  }
   }
+
+  /**
+   * Gives this list a private copy of its nodes if they may be shared
+   * with a snapshot. Called before any change to the links of the ring.
+   */
+  private void unshare() {
+	  if (shared) {
+		  tail = copyRing(tail);
+		  shared = false;
+	  }
+  }
+
+  /**
+   * Copies the ring ending at the given tail, visiting each node once.
+   * @param tail   the tail of the ring to copy (or null)
+   * @return the tail of the new ring (or null)
+   */
+  private static <E> Node<E> copyRing(Node<E> tail) {
+	  if (tail == null) return null;
+	  Node<E> newTail = new Node<>(tail.getElement(), null);
+	  Node<E> prev = newTail;             // copies are linked head first and the ring closed at newTail
+	  for (Node<E> walk = tail.getNext(); walk != tail; walk = walk.getNext()) {
+		  Node<E> newest = new Node<>(walk.getElement(), null);
+		  prev.setNext(newest);
+		  prev = newest;
+	  }
+	  prev.setNext(newTail);
+	  return newTail;
+  }
   
 //main method
   public static void main(String[] args)
@@ -222,6 +364,15 @@ public class CircularlyLinkedList<E> {
 	  System.out.println("original circular list after cloning");
 	  System.out.println(circularList);
 
+	  //SNAPSHOT taken, then the original keeps changing
+	  CircularlyLinkedList<String> circularListSnapshot = circularList.snapshot();
+	  circularList.rotate();
+	  circularList.removeFirst();
+	  circularList.addLast("JFK");
+	  System.out.println("original circular list after rotate, removeFirst and addLast");
+	  System.out.println(circularList);
+	  System.out.println("snapshot taken before those changes");
+	  System.out.println(circularListSnapshot);
 
 	  //
   }
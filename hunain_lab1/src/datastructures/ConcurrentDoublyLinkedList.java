@@ -0,0 +1,311 @@
+package datastructures;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe doubly linked list for use as a deque. It keeps the
+ * header/trailer sentinel design of {@link DoublyLinkedList}, but guards
+ * each end with its own lock: operations at the front only take
+ * frontLock and touch the header and the first two nodes, while
+ * operations at the back only take backLock and touch the trailer and
+ * the last two nodes. While the list holds at least FAST_PATH_SIZE
+ * elements those regions cannot overlap, so front and back operations
+ * proceed in parallel. On shorter lists an operation takes both locks
+ * (always front before back, to avoid deadlock).
+ *
+ * The element count is kept in an AtomicInteger, so size() and isEmpty()
+ * never lock.
+ */
+public class ConcurrentDoublyLinkedList<E> {
+
+  //---------------- nested Node class ----------------
+  /**
+   * Node of a doubly linked list, which stores a reference to its
+   * element and to both the previous and next node in the list.
+   * The links are volatile since a node may be linked under one lock
+   * and later read under the other.
+   */
+  private static class Node<E> {
+
+    /** The element stored at this node */
+    private final E element;         // reference to the element stored at this node
+
+    /** A reference to the preceding node in the list */
+    private volatile Node<E> prev;   // reference to the previous node in the list
+
+    /** A reference to the subsequent node in the list */
+    private volatile Node<E> next;   // reference to the subsequent node in the list
+
+    /**
+     * Creates a node with the given element and neighbors.
+     *
+     * @param e  the element to be stored
+     * @param p  reference to a node that should precede the new node
+     * @param n  reference to a node that should follow the new node
+     */
+    public Node(E e, Node<E> p, Node<E> n) {
+      element = e;
+      prev = p;
+      next = n;
+    }
+
+  } //----------- end of nested Node class -----------
+
+  /**
+   * Smallest observed size at which an operation may hold only its own
+   * end's lock. A front operation touches header, the first node and the
+   * second node's prev link; a back operation touches trailer, the last
+   * node and the second-to-last node's next link. With three or more
+   * elements these never overlap, even counting the one in-flight
+   * removal at the other end that may not have decremented size yet.
+   */
+  private static final int FAST_PATH_SIZE = 3;
+
+  // instance variables of the ConcurrentDoublyLinkedList
+  /** Sentinel node at the beginning of the list */
+  private final Node<E> header;              // header sentinel
+
+  /** Sentinel node at the end of the list */
+  private final Node<E> trailer;             // trailer sentinel
+
+  /** Number of elements in the list (not including sentinels) */
+  private final AtomicInteger size = new AtomicInteger();   // read without locking
+
+  /** Lock guarding operations at the front of the list */
+  private final ReentrantLock frontLock = new ReentrantLock();
+
+  /** Lock guarding operations at the back of the list */
+  private final ReentrantLock backLock = new ReentrantLock();
+
+  /** Constructs a new empty list. */
+  public ConcurrentDoublyLinkedList() {
+    header = new Node<>(null, null, null);      // create header
+    trailer = new Node<>(null, header, null);   // trailer is preceded by header
+    header.next = trailer;                      // header is followed by trailer
+  }
+
+  // public accessor methods
+  /**
+   * Returns the number of elements in the linked list.
+   * @return number of elements in the linked list
+   */
+  public int size() { return size.get(); }
+
+  /**
+   * Tests whether the linked list is empty.
+   * @return true if the linked list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size.get() == 0; }
+
+  /**
+   * Returns (but does not remove) the first element of the list.
+   * @return element at the front of the list (or null if empty)
+   */
+  public E first() {
+    frontLock.lock();
+    try {
+      Node<E> first = header.next;             // first element is beyond header
+      return (first == trailer) ? null : first.element;
+    } finally {
+      frontLock.unlock();
+    }
+  }
+
+  /**
+   * Returns (but does not remove) the last element of the list.
+   * @return element at the end of the list (or null if empty)
+   */
+  public E last() {
+    backLock.lock();
+    try {
+      Node<E> last = trailer.prev;             // last element is before trailer
+      return (last == header) ? null : last.element;
+    } finally {
+      backLock.unlock();
+    }
+  }
+
+  // public update methods
+  /**
+   * Adds an element to the front of the list.
+   * @param e   the new element to add
+   */
+  public void addFirst(E e) {
+    frontLock.lock();
+    try {
+      if (size.get() >= FAST_PATH_SIZE)
+        addBetween(e, header, header.next);    // place just after the header
+      else {
+        backLock.lock();                       // short list: the two ends may meet
+        try {
+          addBetween(e, header, header.next);
+        } finally {
+          backLock.unlock();
+        }
+      }
+    } finally {
+      frontLock.unlock();
+    }
+  }
+
+  /**
+   * Adds an element to the end of the list.
+   * @param e   the new element to add
+   */
+  public void addLast(E e) {
+    backLock.lock();
+    try {
+      if (size.get() >= FAST_PATH_SIZE) {
+        addBetween(e, trailer.prev, trailer);  // place just before the trailer
+        return;
+      }
+    } finally {
+      backLock.unlock();
+    }
+    lockBoth();                                // short list: retake locks in front-to-back order
+    try {
+      addBetween(e, trailer.prev, trailer);
+    } finally {
+      unlockBoth();
+    }
+  }
+
+  /**
+   * Removes and returns the first element of the list.
+   * @return the removed element (or null if empty)
+   */
+  public E removeFirst() {
+    frontLock.lock();
+    try {
+      if (size.get() >= FAST_PATH_SIZE)
+        return remove(header.next);            // first element is beyond header
+      backLock.lock();                         // short list: the two ends may meet
+      try {
+        if (size.get() == 0) return null;      // nothing to remove
+        return remove(header.next);
+      } finally {
+        backLock.unlock();
+      }
+    } finally {
+      frontLock.unlock();
+    }
+  }
+
+  /**
+   * Removes and returns the last element of the list.
+   * @return the removed element (or null if empty)
+   */
+  public E removeLast() {
+    backLock.lock();
+    try {
+      if (size.get() >= FAST_PATH_SIZE)
+        return remove(trailer.prev);           // last element is before trailer
+    } finally {
+      backLock.unlock();
+    }
+    lockBoth();                                // short list: retake locks in front-to-back order
+    try {
+      if (size.get() == 0) return null;        // nothing to remove
+      return remove(trailer.prev);
+    } finally {
+      unlockBoth();
+    }
+  }
+
+  // private update methods
+  /** Acquires both locks in the fixed front-to-back order. */
+  private void lockBoth() {
+    frontLock.lock();
+    backLock.lock();
+  }
+
+  /** Releases both locks acquired by lockBoth. */
+  private void unlockBoth() {
+    backLock.unlock();
+    frontLock.unlock();
+  }
+
+  /**
+   * Adds an element to the linked list in between the given nodes.
+   * The given predecessor and successor should be neighboring each
+   * other prior to the call, and the caller must hold the lock(s)
+   * covering both of them.
+   *
+   * @param predecessor   node just before the location where the new element is inserted
+   * @param successor     node just after the location where the new element is inserted
+   */
+  private void addBetween(E e, Node<E> predecessor, Node<E> successor) {
+    // create and link a new node
+    Node<E> newest = new Node<>(e, predecessor, successor);
+    predecessor.next = newest;
+    successor.prev = newest;
+    size.incrementAndGet();                    // publish only once fully linked
+  }
+
+  /**
+   * Removes the given node from the list and returns its element.
+   * The caller must hold the lock(s) covering the node and its neighbors.
+   * @param node    the node to be removed (must not be a sentinel)
+   */
+  private E remove(Node<E> node) {
+    Node<E> predecessor = node.prev;
+    Node<E> successor = node.next;
+    predecessor.next = successor;
+    successor.prev = predecessor;
+    size.decrementAndGet();
+    return node.element;
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only, and takes both locks.
+   */
+  public String toString() {
+    lockBoth();
+    try {
+      StringBuilder sb = new StringBuilder("(");
+      Node<E> walk = header.next;
+      while (walk != trailer) {
+        sb.append(walk.element);
+        walk = walk.next;
+        if (walk != trailer)
+          sb.append(", ");
+      }
+      sb.append(")");
+      return sb.toString();
+    } finally {
+      unlockBoth();
+    }
+  }
+
+  //main method
+  public static void main(String[] args) throws InterruptedException
+  {
+	  ConcurrentDoublyLinkedList<Integer> deque = new ConcurrentDoublyLinkedList<Integer>();
+	  int perThread = 200_000;
+	  long[] sums = new long[2];
+
+	  // one thread works the front, the other the back; neither waits on the other once the deque is long
+	  Thread front = new Thread(() -> {
+		  for (int i = 0; i < perThread; i++) {
+			  deque.addFirst(i);
+			  if ((i & 1) == 1) sums[0] += deque.removeFirst();
+		  }
+	  });
+	  Thread back = new Thread(() -> {
+		  for (int i = 0; i < perThread; i++) {
+			  deque.addLast(-i);
+			  if ((i & 1) == 1) sums[1] += deque.removeLast();
+		  }
+	  });
+	  front.start(); back.start();
+	  front.join(); back.join();
+
+	  long remaining = 0;
+	  int count = deque.size();
+	  while (!deque.isEmpty()) remaining += deque.removeFirst();
+	  System.out.println("left in deque: " + count + " elements (expected " + perThread + ")");
+	  System.out.println("total of all elements: " + (sums[0] + sums[1] + remaining) + " (expected 0)");
+  }
+} //----------- end of ConcurrentDoublyLinkedList class -----------
@@ -0,0 +1,207 @@
+package datastructures;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A non-blocking singly linked list for use as a multi-producer,
+ * multi-consumer work queue, following the algorithm of Michael and
+ * Scott ("Simple, Fast, and Practical Non-Blocking and Blocking
+ * Concurrent Queue Algorithms", PODC 1996).
+ *
+ * The list always begins with a dummy node; head refers to the dummy
+ * and the first element lives in the node after it. addLast links a
+ * node after the current tail with a compare-and-set on the tail's next
+ * reference, and removeFirst advances head with a compare-and-set, so
+ * producers and consumers never take a lock. A tail reference that lags
+ * behind the true last node is swung forward by whichever thread sees it.
+ */
+public class ConcurrentSinglyLinkedList<E> {
+  //---------------- nested Node class ----------------
+  /**
+   * Node of a concurrent singly linked list, which stores a reference to
+   * its element and to the subsequent node in the list (or null if this
+   * is the last node).
+   */
+  private static class Node<E> {
+
+    /** The element stored at this node (null once it has become the dummy) */
+    private volatile E element;    // reference to the element stored at this node
+
+    /** A reference to the subsequent node in the list */
+    private volatile Node<E> next; // reference to the subsequent node in the list
+
+    /**
+     * Creates a node with the given element and no successor.
+     * @param e  the element to be stored
+     */
+    public Node(E e) { element = e; }
+
+    /**
+     * Links n after this node if this node currently has no successor.
+     * @param n    the node that should follow this one
+     * @return true if the link was made
+     */
+    public boolean casNext(Node<E> n) { return NEXT.compareAndSet(this, null, n); }
+
+  } //----------- end of nested Node class -----------
+
+  /** Handles for atomic updates of the link fields */
+  private static final VarHandle NEXT;
+  private static final VarHandle HEAD;
+  private static final VarHandle TAIL;
+  static {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+      HEAD = lookup.findVarHandle(ConcurrentSinglyLinkedList.class, "head", Node.class);
+      TAIL = lookup.findVarHandle(ConcurrentSinglyLinkedList.class, "tail", Node.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  // instance variables of the ConcurrentSinglyLinkedList
+  /** The dummy node preceding the first element */
+  private volatile Node<E> head;             // dummy node; first element is head.next
+
+  /** The last node of the list, or a node shortly before it */
+  private volatile Node<E> tail;             // may lag the true last node by one step
+
+  /** Constructs an initially empty list. */
+  public ConcurrentSinglyLinkedList() {
+    head = tail = new Node<>(null);          // both refer to the initial dummy
+  }
+
+  // access methods
+  /**
+   * Tests whether the linked list is empty at the moment of the call.
+   * @return true if the linked list is empty, false otherwise
+   */
+  public boolean isEmpty() { return head.next == null; }
+
+  /**
+   * Returns the number of elements in the linked list. This walks the
+   * list, so it takes O(n) time and is only a snapshot when other
+   * threads are adding or removing concurrently.
+   * @return number of elements in the linked list
+   */
+  public int size() {
+    int count = 0;
+    for (Node<E> walk = head.next; walk != null; walk = walk.next)
+      count++;
+    return count;
+  }
+
+  /**
+   * Returns (but does not remove) the first element of the list
+   * @return element at the front of the list (or null if empty)
+   */
+  public E first() {
+    while (true) {
+      Node<E> dummy = head;
+      Node<E> first = dummy.next;
+      if (first == null) return null;
+      E answer = first.element;
+      if (dummy == head) return answer;      // first was not removed in the meantime
+    }
+  }
+
+  // update methods
+  /**
+   * Adds an element to the end of the list.
+   * @param e  the new element to add (must not be null)
+   * @throws NullPointerException if e is null
+   */
+  public void addLast(E e) {
+    if (e == null) throw new NullPointerException("Null elements are not permitted");
+    Node<E> newest = new Node<>(e);          // node will eventually be the tail
+    while (true) {
+      Node<E> last = tail;
+      Node<E> after = last.next;
+      if (last != tail) continue;            // tail moved while we were reading it
+      if (after == null) {
+        if (last.casNext(newest)) {          // link the new node after the last node
+          TAIL.compareAndSet(this, last, newest);   // try to swing tail; others will if we fail
+          return;
+        }
+      } else {
+        TAIL.compareAndSet(this, last, after);      // tail is lagging, help move it forward
+      }
+    }
+  }
+
+  /**
+   * Removes and returns the first element of the list.
+   * @return the removed element (or null if empty)
+   */
+  public E removeFirst() {
+    while (true) {
+      Node<E> dummy = head;
+      Node<E> last = tail;
+      Node<E> first = dummy.next;
+      if (dummy != head) continue;           // head moved while we were reading it
+      if (first == null) return null;        // nothing to remove
+      if (dummy == last) {
+        TAIL.compareAndSet(this, last, first);      // tail is lagging, help move it forward
+      } else if (HEAD.compareAndSet(this, dummy, first)) {
+        E answer = first.element;
+        first.element = null;                // first becomes the new dummy
+        return answer;
+      }
+    }
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (Node<E> walk = head.next; walk != null; walk = walk.next) {
+      E e = walk.element;
+      if (e == null) continue;               // removed while we were walking
+      if (sb.length() > 1)
+        sb.append(", ");
+      sb.append(e);
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+
+  //main method
+  public static void main(String[] args) throws InterruptedException
+  {
+	  ConcurrentSinglyLinkedList<Integer> queue = new ConcurrentSinglyLinkedList<Integer>();
+	  int producers = 4, perProducer = 100_000;
+	  AtomicLong consumedSum = new AtomicLong();
+	  AtomicInteger consumed = new AtomicInteger();
+
+	  Thread[] threads = new Thread[2 * producers];
+	  for (int p = 0; p < producers; p++) {
+		  final int base = p * perProducer;
+		  threads[p] = new Thread(() -> {
+			  for (int i = 0; i < perProducer; i++)
+				  queue.addLast(base + i);
+		  });
+		  threads[producers + p] = new Thread(() -> {
+			  while (consumed.get() < producers * perProducer) {
+				  Integer e = queue.removeFirst();
+				  if (e != null) {
+					  consumedSum.addAndGet(e);
+					  consumed.incrementAndGet();
+				  }
+			  }
+		  });
+	  }
+	  for (Thread t : threads) t.start();
+	  for (Thread t : threads) t.join();
+
+	  long n = (long) producers * perProducer;
+	  System.out.println("consumed " + consumed.get() + " elements, sum " + consumedSum.get()
+			  + " (expected " + (n * (n - 1) / 2) + ")");
+	  System.out.println("empty afterwards: " + queue.isEmpty() + " " + queue);
+  }
+}
@@ -177,7 +177,115 @@ public class DoublyLinkedList<E> {
     return remove(trailer.getPrev());            // last element is before trailer
   }
 
+  /**
+   * Moves all elements of another list to the front of this one, in O(1)
+   * time. The nodes themselves are relinked rather than copied, and the
+   * other list is left empty but still usable.
+   * @param other   the list whose elements are moved (must not be this list)
+   * @throws IllegalArgumentException if other is this list
+   */
+  public void spliceFirst(DoublyLinkedList<E> other) {
+    spliceBefore(header.getNext(), other);       // place just after the header
+  }
+
+  /**
+   * Moves all elements of another list to the end of this one, in O(1)
+   * time. The nodes themselves are relinked rather than copied, and the
+   * other list is left empty but still usable.
+   * @param other   the list whose elements are moved (must not be this list)
+   * @throws IllegalArgumentException if other is this list
+   */
+  public void spliceLast(DoublyLinkedList<E> other) {
+    spliceBefore(trailer, other);                // place just before the trailer
+  }
+
+  /**
+   * Moves all elements of another list into this one, so that the first
+   * of them ends up at the given index. Locating the index walks from
+   * whichever end of the list is closer; the relinking itself is O(1).
+   * @param index   position at which the moved elements begin (0 to size)
+   * @param other   the list whose elements are moved (must not be this list)
+   * @throws IndexOutOfBoundsException if index is outside [0, size]
+   * @throws IllegalArgumentException if other is this list
+   */
+  public void splice(int index, DoublyLinkedList<E> other) {
+    spliceBefore(nodeAt(index), other);
+  }
+
+  /**
+   * Splits this list at the given index, moving the elements at positions
+   * index through size-1 to the end of dest. No nodes are allocated; the
+   * moved chain is relinked between dest's existing sentinels. Locating
+   * the index walks from whichever end of the list is closer.
+   * @param index   position of the first element to move (0 to size)
+   * @param dest    the list receiving the elements (must not be this list)
+   * @throws IndexOutOfBoundsException if index is outside [0, size]
+   * @throws IllegalArgumentException if dest is this list
+   */
+  public void splitAt(int index, DoublyLinkedList<E> dest) {
+    if (dest == this) throw new IllegalArgumentException("Cannot split a list into itself");
+    Node<E> first = nodeAt(index);               // first node of the suffix
+    if (first == trailer) return;                // nothing to move
+    Node<E> last = trailer.getPrev();            // last node of the suffix
+    int moved = size - index;
+
+    first.getPrev().setNext(trailer);            // cap this list before the suffix
+    trailer.setPrev(first.getPrev());
+    size -= moved;
+
+    Node<E> predecessor = dest.trailer.getPrev();
+    predecessor.setNext(first);                  // hang the suffix before dest's trailer
+    first.setPrev(predecessor);
+    last.setNext(dest.trailer);
+    dest.trailer.setPrev(last);
+    dest.size += moved;
+  }
+
   // private update methods
+  /**
+   * Returns the node at the given index, walking from whichever end of
+   * the list is closer. Index size yields the trailer sentinel.
+   * @param index   position of the node (0 to size)
+   */
+  private Node<E> nodeAt(int index) {
+    if (index < 0 || index > size)
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    Node<E> walk;
+    if (index <= size / 2) {
+      walk = header.getNext();
+      for (int j = 0; j < index; j++)
+        walk = walk.getNext();
+    } else {
+      walk = trailer;
+      for (int j = size; j > index; j--)
+        walk = walk.getPrev();
+    }
+    return walk;
+  }
+
+  /**
+   * Relinks every node of other just before the given node of this list
+   * and leaves other empty.
+   * @param successor   node of this list that should follow the moved nodes
+   * @param other       the list whose nodes are moved
+   */
+  private void spliceBefore(Node<E> successor, DoublyLinkedList<E> other) {
+    if (other == this) throw new IllegalArgumentException("Cannot splice a list into itself");
+    if (other.isEmpty()) return;                 // nothing to move
+    Node<E> first = other.header.getNext();
+    Node<E> last = other.trailer.getPrev();
+    Node<E> predecessor = successor.getPrev();
+    predecessor.setNext(first);
+    first.setPrev(predecessor);
+    last.setNext(successor);
+    successor.setPrev(last);
+    size += other.size;
+
+    other.header.setNext(other.trailer);         // other keeps its sentinels, now with no nodes
+    other.trailer.setPrev(other.header);
+    other.size = 0;
+  }
+
   /**
    * Adds an element to the linked list in between the given nodes.
    * The given predecessor and successor should be neighboring each
@@ -237,28 +345,8 @@ public class DoublyLinkedList<E> {
 	  }else if (!this.isEmpty() && second.isEmpty()) {
 		  return this;
 	  }else {
-		  
-		  new_dll.header.setNext(this.header.getNext());
-		  this.header.next = null;
-		  new_dll.header.getNext().setPrev(new_dll.header);
-		  
-		  Node<E> middle_one = this.trailer.getPrev();
-		  Node<E> middle_two = second.header.getNext();
-		  
-		  middle_one.setNext(middle_two);
-		  this.trailer.prev = this.header;
-		  this.header.next = this.trailer; //caps first DLL with no nodes
-		  middle_two.setPrev(middle_one);
-		  second.header.next = null;
-		  
-		  new_dll.trailer.setPrev(second.trailer.getPrev());
-		  second.trailer.prev = second.header;
-		  second.header.next = second.trailer;  //caps second DLL with no nodes
-		  new_dll.trailer.getPrev().setNext(new_dll.trailer);
-		  
-		  new_dll.size = this.size + second.size;
-		  this.size = 0; //assures consistency in size for donating DLLs since those nodes don't belong to them anymore
-		  second.size = 0;
+		  new_dll.spliceLast(this);  //relinks the existing nodes, leaving both donating DLLs empty
+		  new_dll.spliceLast(second);
 	  }  
 	  
 	  return new_dll;
@@ -309,5 +397,17 @@ public class DoublyLinkedList<E> {
 	  System.out.println(list_two);
 	  System.out.println(list_two.size);
 	  
+	  //SPLIT the third DLL back into two, reusing list_one's sentinels
+	  list_three.splitAt(4, list_one);
+	  System.out.println("Third DLL after splitting at 4, and the First DLL receiving the rest");
+	  System.out.println(list_three + " " + list_three.size);
+	  System.out.println(list_one + " " + list_one.size);
+	  
+	  //SPLICE them back together in the middle
+	  list_three.splice(2, list_one);
+	  System.out.println("First DLL spliced into the Third DLL at 2");
+	  System.out.println(list_three + " " + list_three.size);
+	  System.out.println(list_one + " " + list_one.size);
+	  
   }
 } //----------- end of DoublyLinkedList class -----------
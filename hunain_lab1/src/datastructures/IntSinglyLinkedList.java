@@ -0,0 +1,199 @@
+package datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A singly linked list of primitive ints. Nodes are slots in parallel
+ * arrays rather than objects: values[i] holds the element of node i and
+ * next[i] holds the index of the node that follows it (or NIL). Slots
+ * released by removeFirst are kept on a free list and reused, so once
+ * the arrays have grown to the working size no further allocation takes
+ * place and no element is ever boxed.
+ *
+ * Since an int cannot be null, the accessors that return null on an
+ * empty {@link SinglyLinkedList} throw NoSuchElementException here.
+ */
+public class IntSinglyLinkedList {
+
+  /** Index value used in place of a null link */
+  private static final int NIL = -1;
+
+  /** Default number of node slots allocated up front */
+  public static final int DEFAULT_CAPACITY = 16;
+
+  // instance variables of the IntSinglyLinkedList
+  /** Element stored at each node slot */
+  private int[] values;                      // values[i] is the element of node i
+
+  /** Index of the subsequent node for each node slot */
+  private int[] next;                        // next[i] is the node after node i (or NIL)
+
+  /** Index of the head node of the list */
+  private int head = NIL;                    // head node of the list (or NIL if empty)
+
+  /** Index of the last node of the list */
+  private int tail = NIL;                    // last node of the list (or NIL if empty)
+
+  /** Head of the chain of released node slots */
+  private int free = NIL;                    // first reusable slot (or NIL if none)
+
+  /** Number of slots that have ever been handed out */
+  private int used = 0;                      // slots [used, capacity) have never been used
+
+  /** Number of nodes in the list */
+  private int size = 0;                      // number of nodes in the list
+
+  /** Constructs an initially empty list with the default capacity. */
+  public IntSinglyLinkedList() { this(DEFAULT_CAPACITY); }
+
+  /**
+   * Constructs an initially empty list with room for the given number of nodes.
+   * @param capacity  number of node slots to allocate up front
+   * @throws IllegalArgumentException if capacity is not positive
+   */
+  public IntSinglyLinkedList(int capacity) {
+    if (capacity < 1)
+      throw new IllegalArgumentException("Capacity must be positive");
+    values = new int[capacity];
+    next = new int[capacity];
+  }
+
+  // access methods
+  /**
+   * Returns the number of elements in the linked list.
+   * @return number of elements in the linked list
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether the linked list is empty.
+   * @return true if the linked list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns (but does not remove) the first element of the list.
+   * @return element at the front of the list
+   * @throws NoSuchElementException if the list is empty
+   */
+  public int first() {
+    if (isEmpty()) throw new NoSuchElementException("List is empty");
+    return values[head];
+  }
+
+  /**
+   * Returns (but does not remove) the last element of the list.
+   * @return element at the end of the list
+   * @throws NoSuchElementException if the list is empty
+   */
+  public int last() {
+    if (isEmpty()) throw new NoSuchElementException("List is empty");
+    return values[tail];
+  }
+
+  // update methods
+  /**
+   * Adds an element to the front of the list.
+   * @param e  the new element to add
+   */
+  public void addFirst(int e) {
+    int newest = allocate(e, head);          // create and link a new node
+    head = newest;
+    if (size == 0)
+      tail = head;                           // special case: new node becomes tail also
+    size++;
+  }
+
+  /**
+   * Adds an element to the end of the list.
+   * @param e  the new element to add
+   */
+  public void addLast(int e) {
+    int newest = allocate(e, NIL);           // node will eventually be the tail
+    if (isEmpty())
+      head = newest;                         // special case: previously empty list
+    else
+      next[tail] = newest;                   // new node after existing tail
+    tail = newest;                           // new node becomes the tail
+    size++;
+  }
+
+  /**
+   * Removes and returns the first element of the list.
+   * @return the removed element
+   * @throws NoSuchElementException if the list is empty
+   */
+  public int removeFirst() {
+    if (isEmpty()) throw new NoSuchElementException("List is empty");
+    int node = head;
+    int answer = values[node];
+    head = next[node];                       // will become NIL if list had only one node
+    release(node);
+    size--;
+    if (size == 0)
+      tail = NIL;                            // special case as list is now empty
+    return answer;
+  }
+
+  // private slot management
+  /**
+   * Returns a slot initialized with the given element and next link,
+   * reusing a released slot when one is available.
+   */
+  private int allocate(int e, int n) {
+    int slot;
+    if (free != NIL) {                       // reuse a released slot
+      slot = free;
+      free = next[slot];
+    } else {
+      if (used == values.length) {           // grow both arrays together
+        int capacity = 2 * values.length;
+        values = Arrays.copyOf(values, capacity);
+        next = Arrays.copyOf(next, capacity);
+      }
+      slot = used++;
+    }
+    values[slot] = e;
+    next[slot] = n;
+    return slot;
+  }
+
+  /** Pushes the given slot onto the free list. */
+  private void release(int slot) {
+    next[slot] = free;
+    free = slot;
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (int walk = head; walk != NIL; walk = next[walk]) {
+      sb.append(values[walk]);
+      if (walk != tail)
+        sb.append(", ");
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+
+  //main method
+  public static void main(String[] args)
+  {
+	  IntSinglyLinkedList list = new IntSinglyLinkedList(2);
+	  list.addFirst(20);
+	  list.addLast(30);
+	  list.addLast(40);
+	  list.addFirst(10);
+	  System.out.println(list);
+	  System.out.println(list.first() + " " + list.last() + " " + list.size());
+
+	  System.out.println("removed " + list.removeFirst() + " and " + list.removeFirst());
+	  list.addLast(50);                      // reuses the slots just released
+	  list.addLast(60);
+	  System.out.println(list);
+  }
+}
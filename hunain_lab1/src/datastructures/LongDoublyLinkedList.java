@@ -0,0 +1,223 @@
+package datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A doubly linked list of primitive longs. As in {@link DoublyLinkedList}
+ * the list is bracketed by header and trailer sentinels, but nodes are
+ * slots in parallel arrays: values[i], prev[i] and next[i] hold the
+ * element and neighbor indices of node i. Removed slots are kept on a
+ * free list (chained through next) and reused, so steady-state use of
+ * the list performs no allocation and no boxing.
+ *
+ * Since a long cannot be null, the accessors that return null on an
+ * empty {@link DoublyLinkedList} throw NoSuchElementException here.
+ */
+public class LongDoublyLinkedList {
+
+  /** Index value used in place of a null link */
+  private static final int NIL = -1;
+
+  /** Slot index of the header sentinel */
+  private static final int HEADER = 0;       // header sentinel
+
+  /** Slot index of the trailer sentinel */
+  private static final int TRAILER = 1;      // trailer sentinel
+
+  /** Default number of element slots allocated up front */
+  public static final int DEFAULT_CAPACITY = 16;
+
+  // instance variables of the LongDoublyLinkedList
+  /** Element stored at each node slot */
+  private long[] values;                     // values[i] is the element of node i
+
+  /** Index of the preceding node for each node slot */
+  private int[] prev;                        // prev[i] is the node before node i
+
+  /** Index of the subsequent node for each node slot */
+  private int[] next;                        // next[i] is the node after node i
+
+  /** Head of the chain of released node slots */
+  private int free = NIL;                    // first reusable slot (or NIL if none)
+
+  /** Number of slots that have ever been handed out, sentinels included */
+  private int used = 2;                      // slots [used, capacity) have never been used
+
+  /** Number of elements in the list (not including sentinels) */
+  private int size = 0;                      // number of elements in the list
+
+  /** Constructs a new empty list with the default capacity. */
+  public LongDoublyLinkedList() { this(DEFAULT_CAPACITY); }
+
+  /**
+   * Constructs a new empty list with room for the given number of elements.
+   * @param capacity  number of element slots to allocate up front
+   * @throws IllegalArgumentException if capacity is not positive
+   */
+  public LongDoublyLinkedList(int capacity) {
+    if (capacity < 1)
+      throw new IllegalArgumentException("Capacity must be positive");
+    values = new long[capacity + 2];         // two extra slots for the sentinels
+    prev = new int[capacity + 2];
+    next = new int[capacity + 2];
+    prev[HEADER] = NIL;
+    next[HEADER] = TRAILER;                  // header is followed by trailer
+    prev[TRAILER] = HEADER;                  // trailer is preceded by header
+    next[TRAILER] = NIL;
+  }
+
+  // public accessor methods
+  /**
+   * Returns the number of elements in the linked list.
+   * @return number of elements in the linked list
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether the linked list is empty.
+   * @return true if the linked list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns (but does not remove) the first element of the list.
+   * @return element at the front of the list
+   * @throws NoSuchElementException if the list is empty
+   */
+  public long first() {
+    if (isEmpty()) throw new NoSuchElementException("List is empty");
+    return values[next[HEADER]];             // first element is beyond header
+  }
+
+  /**
+   * Returns (but does not remove) the last element of the list.
+   * @return element at the end of the list
+   * @throws NoSuchElementException if the list is empty
+   */
+  public long last() {
+    if (isEmpty()) throw new NoSuchElementException("List is empty");
+    return values[prev[TRAILER]];            // last element is before trailer
+  }
+
+  // public update methods
+  /**
+   * Adds an element to the front of the list.
+   * @param e   the new element to add
+   */
+  public void addFirst(long e) {
+    addBetween(e, HEADER, next[HEADER]);     // place just after the header
+  }
+
+  /**
+   * Adds an element to the end of the list.
+   * @param e   the new element to add
+   */
+  public void addLast(long e) {
+    addBetween(e, prev[TRAILER], TRAILER);   // place just before the trailer
+  }
+
+  /**
+   * Removes and returns the first element of the list.
+   * @return the removed element
+   * @throws NoSuchElementException if the list is empty
+   */
+  public long removeFirst() {
+    if (isEmpty()) throw new NoSuchElementException("List is empty");
+    return remove(next[HEADER]);             // first element is beyond header
+  }
+
+  /**
+   * Removes and returns the last element of the list.
+   * @return the removed element
+   * @throws NoSuchElementException if the list is empty
+   */
+  public long removeLast() {
+    if (isEmpty()) throw new NoSuchElementException("List is empty");
+    return remove(prev[TRAILER]);            // last element is before trailer
+  }
+
+  // private update methods
+  /**
+   * Adds an element to the linked list in between the given nodes.
+   * The given predecessor and successor should be neighboring each
+   * other prior to the call.
+   *
+   * @param predecessor   node just before the location where the new element is inserted
+   * @param successor     node just after the location where the new element is inserted
+   */
+  private void addBetween(long e, int predecessor, int successor) {
+    int newest = allocate();
+    values[newest] = e;
+    prev[newest] = predecessor;
+    next[newest] = successor;
+    next[predecessor] = newest;
+    prev[successor] = newest;
+    size++;
+  }
+
+  /**
+   * Removes the given node from the list and returns its element.
+   * @param node    the node to be removed (must not be a sentinel)
+   */
+  private long remove(int node) {
+    int predecessor = prev[node];
+    int successor = next[node];
+    next[predecessor] = successor;
+    prev[successor] = predecessor;
+    next[node] = free;                       // push the slot onto the free list
+    free = node;
+    size--;
+    return values[node];
+  }
+
+  /** Returns an unused slot, reusing a released one when available. */
+  private int allocate() {
+    if (free != NIL) {                       // reuse a released slot
+      int slot = free;
+      free = next[slot];
+      return slot;
+    }
+    if (used == values.length) {             // grow all three arrays together
+      int capacity = 2 * values.length;
+      values = Arrays.copyOf(values, capacity);
+      prev = Arrays.copyOf(prev, capacity);
+      next = Arrays.copyOf(next, capacity);
+    }
+    return used++;
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    int walk = next[HEADER];
+    while (walk != TRAILER) {
+      sb.append(values[walk]);
+      walk = next[walk];
+      if (walk != TRAILER)
+        sb.append(", ");
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+
+  //main method
+  public static void main(String[] args)
+  {
+	  LongDoublyLinkedList list = new LongDoublyLinkedList(2);
+	  list.addFirst(2_000_000_000_000L);
+	  list.addLast(3_000_000_000_000L);
+	  list.addLast(4_000_000_000_000L);
+	  list.addFirst(1_000_000_000_000L);
+	  System.out.println(list);
+	  System.out.println(list.first() + " " + list.last() + " " + list.size());
+
+	  System.out.println("removed " + list.removeFirst() + " and " + list.removeLast());
+	  list.addFirst(5L);                     // reuses the slots just released
+	  list.addLast(6L);
+	  System.out.println(list);
+  }
+} //----------- end of LongDoublyLinkedList class -----------
@@ -0,0 +1,297 @@
+package datastructures;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+/**
+ * A doubly linked list of fixed-size byte records kept outside the Java
+ * heap. Like {@link LongDoublyLinkedList} it uses header and trailer
+ * sentinels and int slot indices in place of Node references, but every
+ * slot lives in a MemorySegment slab obtained from the Foreign Function
+ * and Memory API:
+ *
+ *    offset 0   int   index of the previous slot
+ *    offset 4   int   index of the next slot
+ *    offset 8   recordSize bytes of record data
+ *
+ * Slabs are allocated as the list grows and released slots are chained
+ * on a free list, so the heap only holds the small array of slab
+ * references no matter how many records the list contains, and the
+ * garbage collector never has to trace the records or their links.
+ *
+ * The off-heap memory belongs to a confined arena: the list may only be
+ * used by the thread that created it, and close() frees all slabs at once.
+ */
+public class OffHeapDoublyLinkedList implements AutoCloseable {
+
+  /** Index value used in place of a null link */
+  private static final int NIL = -1;
+
+  /** Slot index of the header sentinel */
+  private static final int HEADER = 0;       // header sentinel
+
+  /** Slot index of the trailer sentinel */
+  private static final int TRAILER = 1;      // trailer sentinel
+
+  /** Byte offsets of the fields within a slot */
+  private static final long PREV = 0, NEXT = 4, RECORD = 8;
+
+  /** Default number of slots per slab (a power of two) */
+  public static final int DEFAULT_SLAB_SLOTS = 1 << 16;
+
+  // instance variables of the OffHeapDoublyLinkedList
+  /** Owner of all off-heap memory used by the list */
+  private final Arena arena = Arena.ofConfined();
+
+  /** Number of bytes in every record */
+  private final int recordSize;
+
+  /** Number of bytes in every slot, rounded up to keep links aligned */
+  private final long slotSize;
+
+  /** log2 of the number of slots per slab */
+  private final int slabShift;
+
+  /** Slabs of slots; slot i lives in slabs[i >>> slabShift] */
+  private MemorySegment[] slabs = new MemorySegment[4];
+
+  /** Number of slabs allocated so far */
+  private int slabCount = 0;
+
+  /** Head of the chain of released slots */
+  private int free = NIL;                    // first reusable slot (or NIL if none)
+
+  /** Number of slots that have ever been handed out, sentinels included */
+  private int used = 0;                      // slots [used, capacity) have never been used
+
+  /** Number of records in the list (not including sentinels) */
+  private int size = 0;                      // number of records in the list
+
+  /**
+   * Constructs a new empty list with the default slab size.
+   * @param recordSize  number of bytes in every record
+   * @throws IllegalArgumentException if recordSize is negative
+   */
+  public OffHeapDoublyLinkedList(int recordSize) { this(recordSize, DEFAULT_SLAB_SLOTS); }
+
+  /**
+   * Constructs a new empty list.
+   * @param recordSize  number of bytes in every record
+   * @param slabSlots   number of slots allocated at a time (a power of two, at least 2)
+   * @throws IllegalArgumentException if recordSize is negative or slabSlots is not valid
+   */
+  public OffHeapDoublyLinkedList(int recordSize, int slabSlots) {
+    if (recordSize < 0)
+      throw new IllegalArgumentException("Record size must not be negative");
+    if (slabSlots < 2 || Integer.bitCount(slabSlots) != 1)
+      throw new IllegalArgumentException("Slab slots must be a power of two, at least 2");
+    this.recordSize = recordSize;
+    this.slotSize = (RECORD + recordSize + 7) & ~7L;   // multiple of 8 bytes
+    this.slabShift = Integer.numberOfTrailingZeros(slabSlots);
+    int header = allocate();                 // the first slab always holds the sentinels
+    int trailer = allocate();
+    setPrev(header, NIL);
+    setNext(header, trailer);                // header is followed by trailer
+    setPrev(trailer, header);                // trailer is preceded by header
+    setNext(trailer, NIL);
+  }
+
+  // public accessor methods
+  /**
+   * Returns the number of records in the linked list.
+   * @return number of records in the linked list
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether the linked list is empty.
+   * @return true if the linked list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns the number of bytes in every record.
+   * @return the record size
+   */
+  public int recordSize() { return recordSize; }
+
+  /**
+   * Returns (but does not remove) a copy of the first record of the list.
+   * @return record at the front of the list (or null if empty)
+   */
+  public byte[] first() {
+    if (isEmpty()) return null;
+    return readRecord(getNext(HEADER));      // first record is beyond header
+  }
+
+  /**
+   * Returns (but does not remove) a copy of the last record of the list.
+   * @return record at the end of the list (or null if empty)
+   */
+  public byte[] last() {
+    if (isEmpty()) return null;
+    return readRecord(getPrev(TRAILER));     // last record is before trailer
+  }
+
+  // public update methods
+  /**
+   * Adds a record to the front of the list.
+   * @param record   the new record to add (exactly recordSize bytes)
+   * @throws IllegalArgumentException if the record has the wrong length
+   */
+  public void addFirst(byte[] record) {
+    addBetween(record, HEADER, getNext(HEADER));    // place just after the header
+  }
+
+  /**
+   * Adds a record to the end of the list.
+   * @param record   the new record to add (exactly recordSize bytes)
+   * @throws IllegalArgumentException if the record has the wrong length
+   */
+  public void addLast(byte[] record) {
+    addBetween(record, getPrev(TRAILER), TRAILER);  // place just before the trailer
+  }
+
+  /**
+   * Removes and returns the first record of the list.
+   * @return the removed record (or null if empty)
+   */
+  public byte[] removeFirst() {
+    if (isEmpty()) return null;              // nothing to remove
+    return remove(getNext(HEADER));          // first record is beyond header
+  }
+
+  /**
+   * Removes and returns the last record of the list.
+   * @return the removed record (or null if empty)
+   */
+  public byte[] removeLast() {
+    if (isEmpty()) return null;              // nothing to remove
+    return remove(getPrev(TRAILER));         // last record is before trailer
+  }
+
+  /**
+   * Frees all off-heap memory held by the list. The list must not be
+   * used afterwards.
+   */
+  @Override
+  public void close() {
+    arena.close();
+    slabs = null;
+  }
+
+  // private update methods
+  /**
+   * Adds a record to the linked list in between the given slots.
+   * The given predecessor and successor should be neighboring each
+   * other prior to the call.
+   *
+   * @param predecessor   slot just before the location where the new record is inserted
+   * @param successor     slot just after the location where the new record is inserted
+   */
+  private void addBetween(byte[] record, int predecessor, int successor) {
+    if (record.length != recordSize)
+      throw new IllegalArgumentException("Record must be " + recordSize + " bytes");
+    int newest = allocate();
+    MemorySegment.copy(record, 0, slab(newest), ValueLayout.JAVA_BYTE,
+                       offset(newest) + RECORD, recordSize);
+    setPrev(newest, predecessor);
+    setNext(newest, successor);
+    setNext(predecessor, newest);
+    setPrev(successor, newest);
+    size++;
+  }
+
+  /**
+   * Removes the given slot from the list and returns a copy of its record.
+   * @param slot    the slot to be removed (must not be a sentinel)
+   */
+  private byte[] remove(int slot) {
+    int predecessor = getPrev(slot);
+    int successor = getNext(slot);
+    setNext(predecessor, successor);
+    setPrev(successor, predecessor);
+    byte[] answer = readRecord(slot);
+    setNext(slot, free);                     // push the slot onto the free list
+    free = slot;
+    size--;
+    return answer;
+  }
+
+  /** Returns an unused slot, reusing a released one when available. */
+  private int allocate() {
+    if (free != NIL) {                       // reuse a released slot
+      int slot = free;
+      free = getNext(slot);
+      return slot;
+    }
+    if (used == slabCount << slabShift) {    // every slab is full: add another
+      if (slabCount == Integer.MAX_VALUE >>> slabShift)
+        throw new IllegalStateException("List is full");
+      if (slabCount == slabs.length)
+        slabs = Arrays.copyOf(slabs, 2 * slabs.length);
+      slabs[slabCount++] = arena.allocate(slotSize << slabShift, 8);
+    }
+    return used++;
+  }
+
+  // slot access helpers
+  /** Returns the slab holding the given slot. */
+  private MemorySegment slab(int slot) { return slabs[slot >>> slabShift]; }
+
+  /** Returns the byte offset of the given slot within its slab. */
+  private long offset(int slot) { return (slot & ((1 << slabShift) - 1)) * slotSize; }
+
+  private int getPrev(int slot) { return slab(slot).get(ValueLayout.JAVA_INT, offset(slot) + PREV); }
+
+  private int getNext(int slot) { return slab(slot).get(ValueLayout.JAVA_INT, offset(slot) + NEXT); }
+
+  private void setPrev(int slot, int p) { slab(slot).set(ValueLayout.JAVA_INT, offset(slot) + PREV, p); }
+
+  private void setNext(int slot, int n) { slab(slot).set(ValueLayout.JAVA_INT, offset(slot) + NEXT, n); }
+
+  /** Copies the record stored at the given slot onto the heap. */
+  private byte[] readRecord(int slot) {
+    byte[] record = new byte[recordSize];
+    MemorySegment.copy(slab(slot), ValueLayout.JAVA_BYTE, offset(slot) + RECORD,
+                       record, 0, recordSize);
+    return record;
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    int walk = getNext(HEADER);
+    while (walk != TRAILER) {
+      sb.append(Arrays.toString(readRecord(walk)));
+      walk = getNext(walk);
+      if (walk != TRAILER)
+        sb.append(", ");
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+
+  //main method
+  public static void main(String[] args)
+  {
+	  try (OffHeapDoublyLinkedList list = new OffHeapDoublyLinkedList(3, 4)) {   // tiny slabs to show growth
+		  list.addFirst(new byte[] {2, 2, 2});
+		  list.addLast(new byte[] {3, 3, 3});
+		  list.addLast(new byte[] {4, 4, 4});
+		  list.addFirst(new byte[] {1, 1, 1});
+		  System.out.println(list);
+		  System.out.println(Arrays.toString(list.first()) + " " + Arrays.toString(list.last()) + " " + list.size());
+
+		  System.out.println("removed " + Arrays.toString(list.removeFirst())
+				  + " and " + Arrays.toString(list.removeLast()));
+		  list.addLast(new byte[] {5, 5, 5});   // reuses the slots just released
+		  System.out.println(list);
+	  }
+  }
+} //----------- end of OffHeapDoublyLinkedList class -----------
@@ -0,0 +1,427 @@
+package datastructures;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A singly linked list of fixed-size byte records that lives in a
+ * memory-mapped file, so a queue survives a restart of the process and
+ * is usable again as soon as the file is reopened.
+ *
+ * The file starts with a header holding the magic number, the record
+ * size, a selector, and two copies of the list state (capacity, head,
+ * tail, size, free-list head and slots used). It is followed by capacity
+ * slots of the form
+ *
+ *    offset 0   int   index of the next slot in the list (or NIL)
+ *    offset 4   int   index of the next slot in the free list (or NIL)
+ *    offset 8   recordSize bytes of record data
+ *
+ * Removed slots are chained on a free list and reused; when every slot is
+ * taken the file is doubled in length and remapped.
+ *
+ * An update never changes anything the current state depends on. It
+ * writes the new state into the copy the selector does not point at, and
+ * then flips the selector with a single int write, which publishes the
+ * whole update at once. If the process dies before the flip, the file
+ * still holds the state before the update. Three rules keep the slots
+ * consistent with both states:
+ *
+ *  - a free slot keeps its free-list link while it is being reused, so the
+ *    old free list stays intact;
+ *  - a removed slot is chained by its free-list link, so the old list's
+ *    links stay intact;
+ *  - the tail's list link is never read, since the list is walked for size
+ *    slots, so addLast may set it before the flip.
+ *
+ * Changes reach the operating system's page cache immediately, so they
+ * survive the process exiting. Call force() to also make them durable
+ * against an operating system crash or power loss. The list is not
+ * thread-safe, and a file must only be opened by one list at a time.
+ */
+public class PersistentSinglyLinkedList implements AutoCloseable {
+
+  /** Index value used in place of a null link */
+  private static final int NIL = -1;
+
+  /** Identifies a file written by this class ("PSLL") */
+  private static final int MAGIC = 0x50534C4C;
+
+  /** Byte offsets of the fixed header fields */
+  private static final int MAGIC_AT = 0, RECORD_SIZE_AT = 4, SELECTOR_AT = 8;
+
+  /** Byte offsets of the two copies of the list state, selected by the int at SELECTOR_AT */
+  private static final int[] STATE_AT = {16, 40};
+
+  /** Byte offsets of the fields within a copy of the list state */
+  private static final int CAPACITY = 0, HEAD = 4, TAIL = 8, SIZE = 12, FREE = 16, USED = 20;
+
+  /** Number of bytes in the header */
+  private static final int HEADER_BYTES = 64;
+
+  /** Byte offsets of the list link, free-list link and record within a slot */
+  private static final int NEXT = 0, FREE_NEXT = 4, RECORD = 8;
+
+  /** Number of slots in a newly created file */
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  // instance variables of the PersistentSinglyLinkedList
+  /** Channel of the backing file */
+  private final FileChannel channel;
+
+  /** Mapping of the whole backing file */
+  private MappedByteBuffer buffer;
+
+  /** Number of bytes in every record */
+  private final int recordSize;
+
+  /** Number of bytes in every slot, rounded up to keep links aligned */
+  private final int slotSize;
+
+  /** Which copy of the list state in the file is current, 0 or 1 */
+  private int selector;
+
+  /** Writes left before a simulated crash, or -1 for no crash (see crashAfter) */
+  private int writesUntilCrash = -1;
+
+  // The remaining fields mirror the current list state in the file.
+  private int capacity;                      // number of slots in the file
+  private int head;                          // head slot of the list (or NIL if empty)
+  private int tail;                          // last slot of the list (or NIL if empty)
+  private int size;                          // number of records in the list
+  private int free;                          // first reusable slot (or NIL if none)
+  private int used;                          // slots [used, capacity) have never been used
+
+  /**
+   * Opens the list stored in the given file, or creates an empty one if
+   * the file does not exist or is empty.
+   *
+   * @param file        the backing file
+   * @param recordSize  number of bytes in every record
+   * @throws IOException if the file cannot be mapped or holds a different kind of list
+   * @throws IllegalArgumentException if recordSize is negative
+   */
+  public PersistentSinglyLinkedList(Path file, int recordSize) throws IOException {
+    if (recordSize < 0)
+      throw new IllegalArgumentException("Record size must not be negative");
+    this.recordSize = recordSize;
+    this.slotSize = (RECORD + recordSize + 3) & ~3;    // multiple of 4 bytes
+    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                               StandardOpenOption.WRITE);
+    try {
+      if (channel.size() == 0) {             // fresh file: write an empty list
+        capacity = DEFAULT_CAPACITY;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileLength(capacity));
+        head = tail = free = NIL;
+        size = used = 0;
+        buffer.putInt(RECORD_SIZE_AT, recordSize);
+        selector = 1;
+        writeHeader();                       // fills copy 0 and selects it
+        buffer.putInt(MAGIC_AT, MAGIC);      // written last: marks the header as complete
+      } else {                               // existing file: resume where it left off
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (channel.size() < HEADER_BYTES || buffer.getInt(MAGIC_AT) != MAGIC)
+          throw new IOException(file + " does not hold a persistent list");
+        if (buffer.getInt(RECORD_SIZE_AT) != recordSize)
+          throw new IOException(file + " holds records of " + buffer.getInt(RECORD_SIZE_AT)
+                                + " bytes, not " + recordSize);
+        selector = buffer.getInt(SELECTOR_AT);
+        int state = STATE_AT[selector];
+        capacity = buffer.getInt(state + CAPACITY);
+        head = buffer.getInt(state + HEAD);
+        tail = buffer.getInt(state + TAIL);
+        size = buffer.getInt(state + SIZE);
+        free = buffer.getInt(state + FREE);
+        used = buffer.getInt(state + USED);
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  // access methods
+  /**
+   * Returns the number of records in the linked list.
+   * @return number of records in the linked list
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether the linked list is empty.
+   * @return true if the linked list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns (but does not remove) a copy of the first record of the list
+   * @return record at the front of the list (or null if empty)
+   */
+  public byte[] first() {
+    if (isEmpty()) return null;
+    return readRecord(head);
+  }
+
+  /**
+   * Returns (but does not remove) a copy of the last record of the list.
+   * @return record at the end of the list (or null if empty)
+   */
+  public byte[] last() {
+    if (isEmpty()) return null;
+    return readRecord(tail);
+  }
+
+  // update methods
+  /**
+   * Adds a record to the front of the list.
+   * @param record  the new record to add (exactly recordSize bytes)
+   * @throws IOException if the file must grow and cannot be remapped
+   * @throws IllegalArgumentException if the record has the wrong length
+   */
+  public void addFirst(byte[] record) throws IOException {
+    int newest = allocate(record, head);     // create and link a new slot
+    head = newest;
+    if (size == 0)
+      tail = head;                           // special case: new slot becomes tail also
+    size++;
+    writeHeader();
+  }
+
+  /**
+   * Adds a record to the end of the list.
+   * @param record  the new record to add (exactly recordSize bytes)
+   * @throws IOException if the file must grow and cannot be remapped
+   * @throws IllegalArgumentException if the record has the wrong length
+   */
+  public void addLast(byte[] record) throws IOException {
+    int newest = allocate(record, NIL);      // slot will eventually be the tail
+    if (isEmpty())
+      head = newest;                         // special case: previously empty list
+    else
+      setNext(tail, newest);                 // new slot after existing tail, whose link is never read
+    tail = newest;                           // new slot becomes the tail
+    size++;
+    writeHeader();
+  }
+
+  /**
+   * Removes and returns the first record of the list.
+   * @return the removed record (or null if empty)
+   */
+  public byte[] removeFirst() {
+    if (isEmpty()) return null;              // nothing to remove
+    int slot = head;
+    byte[] answer = readRecord(slot);
+    head = getNext(slot);                    // will become NIL if list had only one slot
+    size--;
+    if (size == 0)
+      tail = NIL;                            // special case as list is now empty
+    putInt(position(slot) + FREE_NEXT, free);   // push the slot onto the free list
+    free = slot;
+    writeHeader();
+    return answer;
+  }
+
+  /**
+   * Writes every change made so far through to the storage device.
+   */
+  public void force() { buffer.force(); }
+
+  /**
+   * Forces outstanding changes to storage and closes the backing file.
+   * The list must not be used afterwards.
+   * @throws IOException if the file cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    force();
+    channel.close();
+  }
+
+  // private slot management
+  /**
+   * Returns a slot holding the given record and next link, reusing a
+   * released slot or growing the file as needed.
+   */
+  private int allocate(byte[] record, int n) throws IOException {
+    if (record.length != recordSize)
+      throw new IllegalArgumentException("Record must be " + recordSize + " bytes");
+    int slot;
+    if (free != NIL) {                       // reuse a released slot
+      slot = free;
+      free = buffer.getInt(position(slot) + FREE_NEXT);
+    } else {
+      if (used == capacity)
+        grow();
+      slot = used++;
+    }
+    checkCrash();
+    buffer.put(position(slot) + RECORD, record);
+    setNext(slot, n);
+    return slot;
+  }
+
+  /** Doubles the number of slots in the file and remaps it. */
+  private void grow() throws IOException {
+    long limit = (Integer.MAX_VALUE - HEADER_BYTES) / slotSize;   // a mapping holds at most 2GB
+    if (capacity == limit)
+      throw new IllegalStateException("List is full");
+    int larger = (int) Math.min(2L * capacity, limit);
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileLength(larger));   // extends the file
+    capacity = larger;
+  }
+
+  /**
+   * Publishes the list state: writes it into the copy that is not current,
+   * then makes that copy current with a single int write.
+   */
+  private void writeHeader() {
+    int next = 1 - selector;
+    int state = STATE_AT[next];
+    putInt(state + CAPACITY, capacity);
+    putInt(state + HEAD, head);
+    putInt(state + TAIL, tail);
+    putInt(state + SIZE, size);
+    putInt(state + FREE, free);
+    putInt(state + USED, used);
+    putInt(SELECTOR_AT, next);               // the update takes effect here
+    selector = next;
+  }
+
+  /** Writes an int into the file, unless a simulated crash has happened. */
+  private void putInt(int offset, int value) {
+    checkCrash();
+    buffer.putInt(offset, value);
+  }
+
+  /** Counts down to a simulated crash, after which nothing more reaches the file. */
+  private void checkCrash() {
+    if (writesUntilCrash == 0)
+      throw new IllegalStateException("Simulated crash");
+    if (writesUntilCrash > 0)
+      writesUntilCrash--;
+  }
+
+  /**
+   * Makes every write to the file after the next given number fail, as if
+   * the process had died at that point. For testing recovery only; the
+   * list must be closed and the file reopened afterwards.
+   * @param writes  number of writes that still reach the file
+   */
+  void crashAfter(int writes) { writesUntilCrash = writes; }
+
+  /** Returns the number of bytes in a file with the given number of slots. */
+  private long fileLength(int slots) { return HEADER_BYTES + (long) slots * slotSize; }
+
+  /** Returns the byte offset of the given slot in the file. */
+  private int position(int slot) { return HEADER_BYTES + slot * slotSize; }
+
+  private int getNext(int slot) { return buffer.getInt(position(slot) + NEXT); }
+
+  private void setNext(int slot, int n) { putInt(position(slot) + NEXT, n); }
+
+  /** Copies the record stored at the given slot onto the heap. */
+  private byte[] readRecord(int slot) {
+    byte[] record = new byte[recordSize];
+    buffer.get(position(slot) + RECORD, record);
+    return record;
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    int walk = head;
+    for (int i = 0; i < size; i++) {         // the tail's link is not trusted, so count instead
+      sb.append(Arrays.toString(readRecord(walk)));
+      if (i < size - 1) {
+        sb.append(", ");
+        walk = getNext(walk);
+      }
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+
+  //main method
+  public static void main(String[] args) throws IOException
+  {
+	  Path file = Files.createTempFile("queue", ".psll");
+	  try (PersistentSinglyLinkedList list = new PersistentSinglyLinkedList(file, 2)) {
+		  list.addLast(new byte[] {1, 1});
+		  list.addLast(new byte[] {2, 2});
+		  list.addLast(new byte[] {3, 3});
+		  list.addFirst(new byte[] {0, 0});
+		  System.out.println("removed " + Arrays.toString(list.removeFirst()));
+		  System.out.println("before closing " + list);
+	  }
+
+	  // a new list over the same file picks up exactly where the old one stopped
+	  try (PersistentSinglyLinkedList reopened = new PersistentSinglyLinkedList(file, 2)) {
+		  System.out.println("after reopening " + reopened + " size " + reopened.size());
+		  System.out.println(Arrays.toString(reopened.first()) + " " + Arrays.toString(reopened.last()));
+	  }
+	  Files.delete(file);
+
+	  // simulated crashes: stop an update after every possible number of writes, reopen, and check
+	  // that the file holds the list either as it was before the update or as it is after it
+	  for (String operation : new String[] {"addFirst", "addLast", "removeFirst", "addLast with growth"}) {
+		  String before = null, after = null;
+		  for (int writes = -1; ; writes++) {        // -1 runs the update without a crash, to learn the result
+			  Path crashed = Files.createTempFile("crash", ".psll");
+			  boolean completed = true;
+			  try (PersistentSinglyLinkedList list = crashTestList(crashed, operation.endsWith("growth"))) {
+				  if (writes < 0) before = list.toString();
+				  list.crashAfter(writes);
+				  try {
+					  if (operation.equals("addFirst")) list.addFirst(new byte[] {-1});
+					  else if (operation.equals("removeFirst")) list.removeFirst();
+					  else list.addLast(new byte[] {-1});
+				  } catch (IllegalStateException e) {
+					  completed = false;                 // crashed part way through
+				  }
+				  list.crashAfter(-1);
+				  if (writes < 0) after = list.toString();
+			  }
+			  String recovered;
+			  try (PersistentSinglyLinkedList reopened = new PersistentSinglyLinkedList(crashed, 1)) {
+				  recovered = reopened.toString();
+				  reopened.addLast(new byte[] {7});   // the recovered free list and tail must still work
+				  reopened.removeFirst();
+				  reopened.addFirst(new byte[] {8});
+			  }
+			  Files.delete(crashed);
+			  if (!recovered.equals(before) && !recovered.equals(after))
+				  throw new IllegalStateException(operation + " after " + writes + " writes recovered " + recovered);
+			  if (writes >= 0 && completed) {
+				  System.out.println(operation + ": recovers a consistent list after a crash at any of its " + writes + " writes");
+				  break;
+			  }
+		  }
+	  }
+  }
+
+  /**
+   * Creates a list of one-byte records for the crash test. Either the file
+   * is exactly full, so the next add must grow it, or a slot has been
+   * released, reused and released again, so the next add reuses it.
+   */
+  private static PersistentSinglyLinkedList crashTestList(Path file, boolean full) throws IOException {
+	  PersistentSinglyLinkedList list = new PersistentSinglyLinkedList(file, 1);
+	  for (int i = 0; i < (full ? DEFAULT_CAPACITY : 3); i++)
+		  list.addLast(new byte[] {(byte) i});
+	  if (!full) {
+		  list.removeFirst();
+		  list.addLast(new byte[] {9});
+		  list.removeFirst();
+	  }
+	  return list;
+  }
+}
@@ -22,6 +22,7 @@
  */
 package datastructures;
 import java.util.ArrayList;
+import java.util.Objects;
 /**
  * A basic singly linked list implementation.
  *
@@ -87,6 +88,22 @@ public class SinglyLinkedList<E> implements Cloneable {
   /** Number of nodes in the list */
   private int size = 0;                      // number of nodes in the list
 
+  // The hash code is kept up to date as the list changes. For elements
+  // e0, ..., e(n-1) it is the polynomial sum of hash(ei) * BASE^(n-1-i)
+  // (mod 2^32), which each update method can adjust in O(1) time.
+  // Elements must not change their own hash codes while in the list.
+  /** Multiplier of the polynomial hash */
+  private static final int HASH_BASE = 31;
+
+  /** Multiplicative inverse of HASH_BASE modulo 2^32 */
+  private static final int HASH_BASE_INVERSE = inverse(HASH_BASE);
+
+  /** Polynomial hash of the current contents */
+  private int hash = 0;                      // cached hash code of the list
+
+  /** HASH_BASE raised to the number of nodes */
+  private int basePower = 1;                 // weight the next addFirst element receives
+
   /** Constructs an initially empty list. */
   public SinglyLinkedList() { }              // constructs an initially empty list
 
@@ -127,6 +144,8 @@ public class SinglyLinkedList<E> implements Cloneable {
    * @param e  the new element to add
    */
   public void addFirst(E e) {                // adds element e to the front of the list
+    hash += Objects.hashCode(e) * basePower; // new element takes the highest weight
+    basePower *= HASH_BASE;
     head = new Node<>(e, head);              // create and link a new node
     if (size == 0)
       tail = head;                           // special case: new node becomes tail also
@@ -138,6 +157,8 @@ public class SinglyLinkedList<E> implements Cloneable {
    * @param e  the new element to add
    */
   public void addLast(E e) {                 // adds element e to the end of the list
+    hash = hash * HASH_BASE + Objects.hashCode(e);   // shift existing weights up by one
+    basePower *= HASH_BASE;
     Node<E> newest = new Node<>(e, null);    // node will eventually be the tail
     if (isEmpty())
       head = newest;                         // special case: previously empty list
@@ -154,6 +175,8 @@ public class SinglyLinkedList<E> implements Cloneable {
   public E removeFirst() {                   // removes and returns the first element
     if (isEmpty()) return null;              // nothing to remove
     E answer = head.getElement();
+    basePower *= HASH_BASE_INVERSE;
+    hash -= Objects.hashCode(answer) * basePower;    // drop the highest-weight term
     head = head.getNext();                   // will become null if list had only one node
     size--;
     if (size == 0)
@@ -167,10 +190,11 @@ public class SinglyLinkedList<E> implements Cloneable {
     if (getClass() != o.getClass()) return false;
     SinglyLinkedList other = (SinglyLinkedList) o;   // use nonparameterized type
     if (size != other.size) return false;
+    if (hashCode() != other.hashCode()) return false;   // cheap rejection before walking
     Node walkA = head;                               // traverse the primary list
     Node walkB = other.head;                         // traverse the secondary list
     while (walkA != null) {
-      if (!walkA.getElement().equals(walkB.getElement())) return false; //mismatch
+      if (!Objects.equals(walkA.getElement(), walkB.getElement())) return false; //mismatch
       walkA = walkA.getNext();
       walkB = walkB.getNext();
     }
@@ -191,17 +215,33 @@ public class SinglyLinkedList<E> implements Cloneable {
         otherTail = newest;
         walk = walk.getNext();
       }
+      other.tail = otherTail;             // the copy must not share the original's tail
     }
     return other;
   }
 
+  /**
+   * Returns the hash code of the list in O(1) time, since every update
+   * keeps it current.
+   */
   public int hashCode() {
-    int h = 0;
-    for (Node walk=head; walk != null; walk = walk.getNext()) {
-      h ^= walk.getElement().hashCode();      // bitwise exclusive-or with element's code
-      h = (h << 5) | (h >>> 27);              // 5-bit cyclic shift of composite code
-    }
-    return h;
+    return hash;
+  }
+
+  /** Returns HASH_BASE raised to the given power, modulo 2^32. */
+  private static int power(int k) {
+    int result = 1;
+    for (int b = HASH_BASE; k > 0; k >>= 1, b *= b)
+      if ((k & 1) == 1) result *= b;
+    return result;
+  }
+
+  /** Returns the inverse of an odd number modulo 2^32, by Newton's iteration. */
+  private static int inverse(int a) {
+    int x = a;                        // correct to 3 bits for odd a
+    for (int i = 0; i < 5; i++)
+      x *= 2 - a * x;                 // each step doubles the number of correct bits
+    return x;
   }
 
   /**
@@ -221,98 +261,129 @@ public class SinglyLinkedList<E> implements Cloneable {
     return sb.toString();
   }
   
-  /* swapNodes method*/
-  public String swapNodes(Node<E> n1, Node<E> n2) {
-	  boolean n1_occur = false;
-	  boolean n2_occur = false;
-	  
+  /** Outcome of a request to swap two nodes of the list. */
+  public enum SwapResult {
+    /** The two nodes were exchanged */
+    SWAPPED,
+    /** Both arguments refer to the same node, so nothing was changed */
+    SAME,
+    /** At least one of the nodes is not part of this list, so nothing was changed */
+    NOT_FOUND
+  }
+
+  /**
+   * Swaps the nodes at two positions of the list (not just their elements).
+   * The predecessors of both positions are found in a single pass, which
+   * stops at the later of the two.
+   *
+   * @param i  index of a node of the list
+   * @param j  index of another node of the list
+   * @return SWAPPED, or SAME if i equals j
+   * @throws IndexOutOfBoundsException if either index is not in the list
+   */
+  public SwapResult swapNodes(int i, int j) {
+	  if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+	  if (j < 0 || j >= size) throw new IndexOutOfBoundsException("Index: " + j + ", Size: " + size);
+	  Node<E> bef_i = null;
+	  Node<E> bef_j = null;
+	  Node<E> prev = null;
 	  Node<E> walk = head;
-	    while (walk != null) {
-	    	if (walk == n1) {
-	    		n1_occur = true;
-	    	}
-	    	if (walk == n2) {
-	    		n2_occur = true;
-	    	}
-	    	walk = walk.getNext();
-	    }  
-	  if ((n1_occur && n2_occur) && (n1 != n2)) {
-		  swapNodesHandler(n1,n2);
-		  return "swapped";
-	  } else if ((n1_occur && n2_occur) && (n1.equals(n2))){     
-		   return "same";
+	  for (int index = 0; index <= Math.max(i, j); index++) {
+		  if (index == i) bef_i = prev;
+		  if (index == j) bef_j = prev;
+		  prev = walk;
+		  walk = walk.getNext();
 	  }
-	  return "swap error";
-//		   else if (!(n1_occur && n2_occur) && (n1_occur || n2_occur)) { // remains of testing for whether 2 nodes exist in the first place in LL
-//		  // "just one";
-//	  } else {
-//		  // "none";
-//	  }
+	  Node<E> n1 = (bef_i == null) ? head : bef_i.getNext();
+	  Node<E> n2 = (bef_j == null) ? head : bef_j.getNext();
+	  SwapResult result = relink(bef_i, bef_j);
+	  if (result == SwapResult.SWAPPED)
+		  patchHash(n1, i, n2, j);
+	  return result;
   }
-  
-  private void swapNodesHandler(Node<E> n1, Node<E> n2) {
-	  Node<E> bef_first = null;
-	  Node<E> bef_sec = null;
-	  Node<E> first = null;
-	  Node<E> second = null;
 
-	  Node<E> walk = head;
-	  Node<E> prev = null;
+  /**
+   * Swaps the positions of two nodes of the list (not just their elements).
+   * Membership of both nodes and their predecessors are found in a single
+   * pass, which stops as soon as both nodes have been seen. Nodes are
+   * private to the list, so this is only reachable from inside the class;
+   * other code swaps by index.
+   *
+   * @param n1  a node of the list
+   * @param n2  another node of the list
+   * @return the outcome of the swap
+   */
+  private SwapResult swapNodes(Node<E> n1, Node<E> n2) {
+	  Node<E> bef_n1 = null;
+	  Node<E> bef_n2 = null;
+	  int n1_index = -1;
+	  int n2_index = -1;
 
-	  while (walk != null) {
+	  Node<E> prev = null;
+	  int index = 0;
+	  for (Node<E> walk = head; walk != null && (n1_index < 0 || n2_index < 0); walk = walk.getNext()) {
+		  if (walk == n1) { n1_index = index; bef_n1 = prev; }
+		  if (walk == n2) { n2_index = index; bef_n2 = prev; }
+		  prev = walk;
+		  index++;
+	  }
+	  if (n1_index < 0 || n2_index < 0) return SwapResult.NOT_FOUND;
+	  SwapResult result = relink(bef_n1, bef_n2);
+	  if (result == SwapResult.SWAPPED)
+		  patchHash(n1, n1_index, n2, n2_index);
+	  return result;
+  }
 
-		    if (walk == n1 || walk == n2) {
+  /** Updates the cached hash after the nodes at indices i1 and i2 traded places. */
+  private void patchHash(Node<E> n1, int i1, Node<E> n2, int i2) {
+	  int h1 = Objects.hashCode(n1.getElement());
+	  int h2 = Objects.hashCode(n2.getElement());
+	  hash += (h2 - h1) * (power(size - 1 - i1) - power(size - 1 - i2));
+  }
 
-		        if (first == null) {
-		            first = walk;
-		            bef_first = prev;
-		        } else {
-		            second = walk;
-		            bef_sec = prev;
-		            break;
-		        }
-		    }
+  /**
+   * Relinks the nodes that follow the two given predecessors, where a null
+   * predecessor stands for the head of the list.
+   */
+  private SwapResult relink(Node<E> p1, Node<E> p2) {
+	  Node<E> first = (p1 == null) ? head : p1.getNext();
+	  Node<E> second = (p2 == null) ? head : p2.getNext();
+	  if (first == null || second == null) return SwapResult.NOT_FOUND;
+	  if (first == second) return SwapResult.SAME;
 
-		    prev = walk;
-		    walk = walk.getNext();
-	  }
-	  
 	  Node<E> after_first = first.getNext();
 	  Node<E> after_second = second.getNext();
-	  
-	  if (bef_sec == first) { //catch this case as it doesnt mix with base implementation
-
-		    if (bef_first != null) {
-		        bef_first.setNext(second);
-		    } else {
-		        head = second; // first was head
-		    }
+	  if (p2 == first) {                 // first immediately precedes second
+		  linkAfter(p1, second);
+		  second.setNext(first);
+		  first.setNext(after_second);
+	  } else if (p1 == second) {         // second immediately precedes first
+		  linkAfter(p2, first);
+		  first.setNext(second);
+		  second.setNext(after_first);
+	  } else {                           // no overlap between the two neighborhoods
+		  linkAfter(p1, second);
+		  linkAfter(p2, first);
+		  first.setNext(after_second);
+		  second.setNext(after_first);
+	  }
 
-		    first.setNext(after_second);
-		    second.setNext(first);
-	  } else { //main case of swapping atleast a 4 node LL with no overlap
+	  if (tail == first)                 // whichever node was the tail has moved
+		  tail = second;
+	  else if (tail == second)
+		  tail = first;
+	  return SwapResult.SWAPPED;
+  }
 
+  /** Makes n follow p, or makes n the head if p is null. */
+  private void linkAfter(Node<E> p, Node<E> n) {
+	  if (p == null)
+		  head = n;
+	  else
+		  p.setNext(n);
+  }
 
-		    if (bef_first != null) {
-		        bef_first.setNext(second); //there is duplication here, but since it works i won't mess with it
-		    } else {
-		        head = second;
-		    }
-		    bef_sec.setNext(first);
 
-		    first.setNext(after_second);
-		    second.setNext(after_first);
-	  }
-	  
-	  // updated tail case 
-	  if (tail == second) { //just in-case second happened to be tail, caught during testing
-	      tail = first;
-	  }
-	  
-	  	  
-  }
-  
-  
   //main method
   public static void main(String[] args)
   {
@@ -324,6 +395,7 @@ public class SinglyLinkedList<E> implements Cloneable {
 	  //
 	  list.addFirst("LAX");
 	  System.out.println(list);
+	  System.out.println("hash " + list.hashCode() + " (kept up to date by every update)");
 	  
 	  Node<String> n1 = list.head; // you can change these to any nodes in the list
 	  System.out.println(n1.getElement());
@@ -346,16 +418,16 @@ public class SinglyLinkedList<E> implements Cloneable {
 	  
 
 	  // SWAP	  
-	  String result = list.swapNodes(n1, n2);
+	  SwapResult result = list.swapNodes(n1, n2);
 	  System.out.println(list);
 	  
 	  
 	  // SWAP confirmation
-	  if (result.equals("swap error")) {
+	  if (result == SwapResult.NOT_FOUND) {
 		  System.out.println("nodes submitted were either partially/fully not in list, no swap was made");
-	  } else if (result.equals("same")) {
+	  } else if (result == SwapResult.SAME) {
 		  System.out.println("nodes submitted were the same node, no swap was made");
-	  } else if (result.equals("swapped")) {
+	  } else if (result == SwapResult.SWAPPED) {
 		  System.out.println("nodes were swapped");
 		  
 		  //check AFTER swap
@@ -368,6 +440,7 @@ public class SinglyLinkedList<E> implements Cloneable {
 			  index++;
 		  }
 		  if (list.tail.getNext() == null) {System.out.println("Tail is secure.");}
+		  System.out.println("hash after swap " + list.hashCode());
 		  if (walk == null) {System.out.println("Check complete.");}
 		  
 	  }
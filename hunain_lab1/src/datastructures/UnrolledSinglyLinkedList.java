@@ -0,0 +1,289 @@
+package datastructures;
+
+import java.util.Arrays;
+
+/**
+ * An unrolled singly linked list. It offers the same public API as
+ * {@link SinglyLinkedList}, but each node stores a small array of
+ * elements rather than a single one, so a long list allocates one node
+ * per chunk of elements instead of one node per element.
+ *
+ * Elements within a node occupy the slots [start, end) of its array.
+ * New elements are appended after end in the tail node and prepended
+ * before start in the head node; a fresh node is only linked in when
+ * the relevant end node is full.
+ */
+public class UnrolledSinglyLinkedList<E> implements Cloneable {
+  //---------------- nested Node class ----------------
+  /**
+   * Node of an unrolled list, which stores a chunk of elements and a
+   * reference to the subsequent node in the list (or null if this is
+   * the last node).
+   */
+  private static class Node<E> {
+
+    /** The elements stored at this node, valid in the range [start, end) */
+    private Object[] elements;    // chunk of elements stored at this node
+
+    /** Index of the first valid element in the chunk */
+    private int start;            // index of first element in the chunk
+
+    /** Index just past the last valid element in the chunk */
+    private int end;              // index just past the last element in the chunk
+
+    /** A reference to the subsequent node in the list */
+    private Node<E> next;         // reference to the subsequent node in the list
+
+    /**
+     * Creates an empty node with the given chunk capacity.
+     *
+     * @param capacity  the number of element slots in the chunk
+     * @param offset    the initial (empty) position of start and end
+     * @param n         reference to a node that should follow the new node
+     */
+    public Node(int capacity, int offset, Node<E> n) {
+      elements = new Object[capacity];
+      start = offset;
+      end = offset;
+      next = n;
+    }
+
+    // Accessor methods
+    /**
+     * Returns the element stored at the given slot of the chunk.
+     * @param i  the slot index
+     * @return the element stored at slot i
+     */
+    @SuppressWarnings({"unchecked"})
+    public E getElement(int i) { return (E) elements[i]; }
+
+    /**
+     * Returns the number of elements stored at the node.
+     * @return the number of elements stored at the node
+     */
+    public int count() { return end - start; }
+
+    /**
+     * Returns the node that follows this one (or null if no such node).
+     * @return the following node
+     */
+    public Node<E> getNext() { return next; }
+
+    // Modifier methods
+    /**
+     * Sets the node's next reference to point to Node n.
+     * @param n    the node that should follow this one
+     */
+    public void setNext(Node<E> n) { next = n; }
+
+  } //----------- end of nested Node class -----------
+
+  /** Default number of elements stored per node */
+  public static final int DEFAULT_NODE_CAPACITY = 16;
+
+  // instance variables of the UnrolledSinglyLinkedList
+  /** The head node of the list */
+  private Node<E> head = null;               // head node of the list (or null if empty)
+
+  /** The last node of the list */
+  private Node<E> tail = null;               // last node of the list (or null if empty)
+
+  /** Number of elements in the list */
+  private int size = 0;                      // number of elements in the list
+
+  /** Number of element slots allocated per node */
+  private final int nodeCapacity;            // chunk length of every node
+
+  /** Constructs an initially empty list with the default node capacity. */
+  public UnrolledSinglyLinkedList() { this(DEFAULT_NODE_CAPACITY); }
+
+  /**
+   * Constructs an initially empty list with the given node capacity.
+   * @param nodeCapacity  number of elements stored per node
+   * @throws IllegalArgumentException if nodeCapacity is not positive
+   */
+  public UnrolledSinglyLinkedList(int nodeCapacity) {
+    if (nodeCapacity < 1)
+      throw new IllegalArgumentException("Node capacity must be positive");
+    this.nodeCapacity = nodeCapacity;
+  }
+
+  // access methods
+  /**
+   * Returns the number of elements in the linked list.
+   * @return number of elements in the linked list
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether the linked list is empty.
+   * @return true if the linked list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns (but does not remove) the first element of the list
+   * @return element at the front of the list (or null if empty)
+   */
+  public E first() {             // returns (but does not remove) the first element
+    if (isEmpty()) return null;
+    return head.getElement(head.start);
+  }
+
+  /**
+   * Returns (but does not remove) the last element of the list.
+   * @return element at the end of the list (or null if empty)
+   */
+  public E last() {              // returns (but does not remove) the last element
+    if (isEmpty()) return null;
+    return tail.getElement(tail.end - 1);
+  }
+
+  // update methods
+  /**
+   * Adds an element to the front of the list.
+   * @param e  the new element to add
+   */
+  public void addFirst(E e) {                // adds element e to the front of the list
+    if (isEmpty() && head != null)
+      head.start = head.end = nodeCapacity;  // reuse the kept empty chunk, filling from the back
+    if (head == null || head.start == 0) {   // no room before the first element
+      head = new Node<>(nodeCapacity, nodeCapacity, head);   // fill new chunk from the back
+      if (tail == null)
+        tail = head;                         // special case: new node becomes tail also
+    }
+    head.elements[--head.start] = e;
+    size++;
+  }
+
+  /**
+   * Adds an element to the end of the list.
+   * @param e  the new element to add
+   */
+  public void addLast(E e) {                 // adds element e to the end of the list
+    if (isEmpty() && tail != null)
+      tail.start = tail.end = 0;             // reuse the kept empty chunk, filling from the front
+    if (tail == null || tail.end == nodeCapacity) {   // no room after the last element
+      Node<E> newest = new Node<>(nodeCapacity, 0, null);  // fill new chunk from the front
+      if (tail == null)
+        head = newest;                       // special case: previously empty list
+      else
+        tail.setNext(newest);                // new node after existing tail
+      tail = newest;                         // new node becomes the tail
+    }
+    tail.elements[tail.end++] = e;
+    size++;
+  }
+
+  /**
+   * Removes and returns the first element of the list.
+   * @return the removed element (or null if empty)
+   */
+  public E removeFirst() {                   // removes and returns the first element
+    if (isEmpty()) return null;              // nothing to remove
+    E answer = head.getElement(head.start);
+    head.elements[head.start++] = null;      // help garbage collection
+    size--;
+    if (head.count() == 0) {
+      if (head == tail)
+        head.start = head.end = 0;           // keep the lone chunk for reuse by addFirst or addLast
+      else
+        head = head.getNext();               // drop the exhausted chunk
+    }
+    return answer;
+  }
+
+  @SuppressWarnings({"unchecked"})
+  public boolean equals(Object o) {
+    if (o == null) return false;
+    if (getClass() != o.getClass()) return false;
+    UnrolledSinglyLinkedList other = (UnrolledSinglyLinkedList) o;   // use nonparameterized type
+    if (size != other.size) return false;
+    Node walkB = other.head;                         // chunks of the two lists need not line up,
+    int b = (walkB == null) ? 0 : walkB.start;       // so keep a separate cursor into the secondary list
+    for (Node walkA = head; walkA != null; walkA = walkA.getNext()) {
+      for (int a = walkA.start; a < walkA.end; a++) {
+        while (b == walkB.end) {                     // advance to the next non-empty chunk
+          walkB = walkB.getNext();
+          b = walkB.start;
+        }
+        if (!walkA.getElement(a).equals(walkB.getElement(b))) return false; //mismatch
+        b++;
+      }
+    }
+    return true;   // if we reach this, everything matched successfully
+  }
+
+  @SuppressWarnings({"unchecked"})
+  public UnrolledSinglyLinkedList<E> clone() throws CloneNotSupportedException {
+    // always use inherited Object.clone() to create the initial copy
+    UnrolledSinglyLinkedList<E> other = (UnrolledSinglyLinkedList<E>) super.clone(); // safe cast
+    other.head = other.tail = null;
+    for (Node<E> walk = head; walk != null; walk = walk.getNext()) {  // copy chunk by chunk
+      Node<E> newest = new Node<>(0, walk.start, null);
+      newest.elements = Arrays.copyOf(walk.elements, walk.elements.length);
+      newest.end = walk.end;
+      if (other.tail == null)
+        other.head = newest;
+      else
+        other.tail.setNext(newest);       // link previous node to this one
+      other.tail = newest;
+    }
+    return other;
+  }
+
+  public int hashCode() {
+    int h = 0;
+    for (Node walk=head; walk != null; walk = walk.getNext())
+      for (int i = walk.start; i < walk.end; i++) {
+        h ^= walk.getElement(i).hashCode();    // bitwise exclusive-or with element's code
+        h = (h << 5) | (h >>> 27);             // 5-bit cyclic shift of composite code
+      }
+    return h;
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (Node<E> walk = head; walk != null; walk = walk.getNext())
+      for (int i = walk.start; i < walk.end; i++) {
+        if (sb.length() > 1)
+          sb.append(", ");
+        sb.append(walk.getElement(i));
+      }
+    sb.append(")");
+    return sb.toString();
+  }
+
+  //main method
+  public static void main(String[] args) throws CloneNotSupportedException
+  {
+	  UnrolledSinglyLinkedList<String> list = new UnrolledSinglyLinkedList<String>(2);  // tiny chunks to show node boundaries
+	  list.addFirst("MSP");
+	  list.addLast("ATL");
+	  list.addLast("BOS");
+	  list.addFirst("LAX");
+	  list.addLast("PUL");
+	  System.out.println(list);
+	  System.out.println(list.first() + " " + list.last() + " " + list.size());
+
+	  UnrolledSinglyLinkedList<String> copy = list.clone();
+	  UnrolledSinglyLinkedList<String> rebuilt = new UnrolledSinglyLinkedList<String>(3);  // different chunking, same contents
+	  for (String s : new String[] {"LAX", "MSP", "ATL", "BOS", "PUL"})
+		  rebuilt.addLast(s);
+	  System.out.println("clone equal: " + list.equals(copy) + ", rebuilt equal: " + list.equals(rebuilt));
+	  System.out.println("hash match: " + (list.hashCode() == rebuilt.hashCode()));
+
+	  while (!list.isEmpty())
+		  System.out.print(list.removeFirst() + " ");
+	  System.out.println(list);
+	  System.out.println("clone after draining original: " + copy);
+
+	  list.addFirst("SFO");		//the drained list reuses its empty chunk from the front
+	  list.addLast("DEN");
+	  System.out.println(list + " " + list.first() + " " + list.last() + " " + list.size());
+  }
+}
@@ -5,4 +5,5 @@
  * 
  */
 module hunain_lab1 {
+	exports datastructures;
 }
\ No newline at end of file
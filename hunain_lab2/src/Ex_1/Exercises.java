@@ -22,6 +22,9 @@
  */
 package Ex_1;
 
+import java.util.Arrays;
+import java.util.Random;
+
 /**
  * Code for end-of-chapter exercises on asymptotics.
  *
@@ -79,4 +82,57 @@ class Exercises {
     return count;													// 1 step
   }// we're looking at 1.5n^4 + 1.5n^3 + 2n^2 + 5n + 4 which can be asymptotically bound by O(n) as there is c,n0 for 5n where n>~4.48
 
+  /**
+   * Returns the same value as example3 in O(n). The inner loop of example3
+   * adds arr[j] once for each k from 0 to j, that is j+1 times, so the
+   * total is the weighted sum of (j+1) * arr[j]. int arithmetic wraps
+   * around the same way in either order, so the results match even when
+   * the total overflows.
+   */
+  public static int example3Linear(int[] arr) {
+    int n = arr.length, total = 0;								//this is 3 steps
+    for (int j=0; j < n; j++)       // loop from 0 to n-1		//this is 2n steps
+      total += (j+1) * arr[j];      // arr[j] added j+1 times	//this is n steps
+    return total;												// 1 step
+  }// we're looking at 3n + 4 steps, O(n)
+
+  /**
+   * Returns the same value as example5 in O(n). The total example5
+   * recomputes for every i does not depend on i: it is the sum of the
+   * prefix sums of first, which example4 computes in one pass. Only that
+   * single value is compared against second, so no counting structure is
+   * needed. Overflow wraps identically, as for example3Linear.
+   */
+  public static int example5Linear(int[] first, int[] second) { // assume equal-length arrays
+    int n = first.length, count = 0;								//this is 3 steps
+    int total = example4(first);									//this is 4n + 5 steps, done once
+    for (int i=0; i < n; i++)       // loop from 0 to n-1			//this is 2n steps
+      if (second[i] == total) count++;								//the check runs n steps, the count could run up to n steps
+    return count;													// 1 step
+  }// we're looking at 8n + 9 steps, O(n)
+
+  public static void main(String[] args) {
+	  //randomized check that the linear versions give exactly the original results
+	  Random random = new Random(254);
+	  for (int trial = 0; trial < 10000; trial++) {
+		  int n = random.nextInt(12);		//kept small, example5 is O(n^4)
+		  int bound = (trial % 2 == 0) ? 100 : Integer.MAX_VALUE;		//every other trial overflows
+		  int[] first = new int[n];
+		  int[] second = new int[n];
+		  for (int i = 0; i < n; i++) {
+			  first[i] = random.nextInt(bound) - bound / 2;
+			  second[i] = random.nextInt(bound) - bound / 2;
+		  }
+		  int target = example4(first);
+		  for (int i = 0; i < n; i++)
+			  if (random.nextInt(3) == 0) second[i] = target;	//seed matches so the count is not always 0
+
+		  if (example3Linear(first) != example3(first))
+			  throw new AssertionError("example3 differs for " + Arrays.toString(first));
+		  if (example5Linear(first, second) != example5(first, second))
+			  throw new AssertionError("example5 differs for " + Arrays.toString(first) + " " + Arrays.toString(second));
+	  }
+	  System.out.println("example3Linear and example5Linear match the originals on 10000 random inputs");
+  }
+
 }
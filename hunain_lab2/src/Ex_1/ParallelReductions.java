@@ -0,0 +1,201 @@
+package Ex_1;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.BinaryOperator;
+import java.util.stream.IntStream;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Versions of Exercises.example1, example2 and example4 for very large
+ * arrays. The originals add into an int, which silently wraps around once
+ * the total passes 2^31, and use one core. These add into longs, split the
+ * array into blocks that are reduced in parallel, and reduce each block
+ * with the incubating Vector API, which is confined to this class; compile
+ * and run it with --add-modules jdk.incubator.vector.
+ *
+ * Each vector step loads L ints, widens them to L longs (an int vector of
+ * half the bit size converts into exactly one long vector) and adds them
+ * into L long lanes. The totals of sum and sumEvenIndex stay below 2^62
+ * for any int array, so longs hold them exactly. The total of
+ * sumOfPrefixSums can reach about 2^92, so each lane keeps a 128-bit sum
+ * as a pair of longs, adding the carry out of the low half into the high
+ * half, and the blocks are combined as a BigInteger.
+ */
+public class ParallelReductions {
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+	private static final int LANES = LONGS.length();		//the same for INTS
+
+	/** Ints of half the bit size, so one int vector widens into one long vector; null when there is no such shape */
+	private static final VectorSpecies<Integer> INTS = (LANES < 2) ? null
+			: IntVector.SPECIES_PREFERRED.withShape(VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+	/** Lanes 0, 2, 4, ...: the even indices, since every vector starts at an even index */
+	private static final VectorMask<Long> EVEN_LANES = VectorMask.fromLong(LONGS, 0x5555555555555555L);
+
+	/** 0, 1, ..., L-1 as longs */
+	private static final LongVector IOTA = LongVector.zero(LONGS).addIndex(1);
+
+	/** 2^64 - 1, to read a long as unsigned */
+	private static final BigInteger LOW_64_BITS = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+	/** Smallest block worth handing to another thread, a multiple of the lane count */
+	private static final int MIN_BLOCK = 1 << 16;
+
+	/** Returns the sum of the integers in given array, as example1 but without overflow. */
+	public static long sum(int[] arr) {
+		return reduce(arr, ParallelReductions::sumBlock, 0L, Long::sum);
+	}
+
+	/** Returns the sum of the integers with even index in given array, as example2 but without overflow. */
+	public static long sumEvenIndex(int[] arr) {
+		return reduce(arr, ParallelReductions::sumEvenBlock, 0L, Long::sum);
+	}
+
+	/**
+	 * Returns the sum of the prefix sums of given array, as example4 but
+	 * without overflow. arr[j] belongs to the prefix sums j, j+1, ..., n-1,
+	 * so the total is the sum of arr[j] * (n-j), and blocks can be summed
+	 * independently. The total can be as large as 2^31 * n(n+1)/2, beyond
+	 * a long once n passes about 3 million, so it is returned exactly as a
+	 * BigInteger.
+	 */
+	public static BigInteger sumOfPrefixSums(int[] arr) {
+		return reduce(arr, (a, from, to) -> sumWeightedBlock(a, from, to, a.length), BigInteger.ZERO, BigInteger::add);
+	}
+
+	/** Reduction of the block arr[from..to-1] */
+	private interface BlockReduction<R> {
+		R reduce(int[] arr, int from, int to);
+	}
+
+	/** Splits the array into blocks, reduces them in parallel and combines the results. */
+	private static <R> R reduce(int[] arr, BlockReduction<R> block, R identity, BinaryOperator<R> combine) {
+		int n = arr.length;
+		int blockSize = Math.max(MIN_BLOCK, n / (4 * Runtime.getRuntime().availableProcessors()) + 1);
+		int step = Math.max(2, LANES);
+		blockSize = (blockSize + step - 1) / step * step;		//keep every block start even and vector aligned
+		int size = blockSize;
+		int blocks = (int) (((long) n + size - 1) / size);
+		return IntStream.range(0, blocks).parallel()
+				.mapToObj(b -> block.reduce(arr, b * size, (int) Math.min(n, (long) (b + 1) * size)))
+				.reduce(identity, combine);
+	}
+
+	/**
+	 * Returns where the vector loop over arr[from..to-1] stops and the scalar
+	 * tail takes over: at from itself on machines whose vectors hold fewer
+	 * than 2 longs, which have no half-size int shape and nothing to gain.
+	 */
+	private static int vectorBound(int from, int to) {
+		return (LANES < 2) ? from : from + INTS.loopBound(to - from);
+	}
+
+	private static long sumBlock(int[] arr, int from, int to) {
+		LongVector acc = LongVector.zero(LONGS);
+		int j = from;
+		for (int bound = vectorBound(from, to); j < bound; j += LANES)
+			acc = acc.add(widen(arr, j));
+		long total = acc.reduceLanes(VectorOperators.ADD);
+		for (; j < to; j++)
+			total += arr[j];
+		return total;
+	}
+
+	private static long sumEvenBlock(int[] arr, int from, int to) {
+		LongVector acc = LongVector.zero(LONGS);
+		int j = from;
+		for (int bound = vectorBound(from, to); j < bound; j += LANES)		//LANES is even whenever this runs
+			acc = acc.add(widen(arr, j), EVEN_LANES);
+		long total = acc.reduceLanes(VectorOperators.ADD);
+		for (; j < to; j += 2)		//j is still even, so the scalar tail keeps to even indices
+			total += arr[j];
+		return total;
+	}
+
+	/**
+	 * Sums arr[j] * (n-j) over the block in 128 bits. Every product is below
+	 * 2^62 in magnitude, so it fits a long; each is added to the low half,
+	 * and the high half gains the product's sign extension plus the carry,
+	 * which is set when the low half wraps past 2^64 as an unsigned number.
+	 */
+	private static BigInteger sumWeightedBlock(int[] arr, int from, int to, int n) {
+		LongVector low = LongVector.zero(LONGS), high = LongVector.zero(LONGS);
+		LongVector weights = IOTA.neg().add(n - from);		//n-j for the lanes of the first vector
+		int j = from;
+		for (int bound = vectorBound(from, to); j < bound; j += LANES) {
+			LongVector product = widen(arr, j).mul(weights);
+			LongVector sum = low.add(product);
+			high = high.add(product.lanewise(VectorOperators.ASHR, 63))
+					.add(1, sum.compare(VectorOperators.UNSIGNED_LT, low));
+			low = sum;
+			weights = weights.sub(LANES);
+		}
+		long lowTotal = 0, highTotal = 0;
+		for (int lane = 0; lane < LANES; lane++) {		//add up the lanes, then the scalar tail, in the same way
+			long sum = lowTotal + low.lane(lane);
+			highTotal += high.lane(lane) + (Long.compareUnsigned(sum, lowTotal) < 0 ? 1 : 0);
+			lowTotal = sum;
+		}
+		for (; j < to; j++) {
+			long product = (long) arr[j] * (n - j);
+			long sum = lowTotal + product;
+			highTotal += (product >> 63) + (Long.compareUnsigned(sum, lowTotal) < 0 ? 1 : 0);
+			lowTotal = sum;
+		}
+		return BigInteger.valueOf(highTotal).shiftLeft(64).add(BigInteger.valueOf(lowTotal).and(LOW_64_BITS));
+	}
+
+	/** Loads arr[j..j+L-1] and widens the ints to longs. */
+	private static LongVector widen(int[] arr, int j) {
+		return (LongVector) IntVector.fromArray(INTS, arr, j).convertShape(VectorOperators.I2L, LONGS, 0);
+	}
+
+	public static void main(String[] args) {
+		System.out.println("Vector lanes: " + LANES);
+
+		//the int results of Exercises are the long results wrapped around, so the low 32 bits must agree
+		Random random = new Random(254);
+		for (int n : new int[] {0, 1, 2, 3, LANES - 1, LANES, LANES + 1, 1000, MIN_BLOCK + 3, 1_000_001}) {
+			int[] arr = random.ints(n).toArray();
+			if ((int) sum(arr) != Exercises.example1(arr)
+					|| (int) sumEvenIndex(arr) != Exercises.example2(arr)
+					|| sumOfPrefixSums(arr).intValue() != Exercises.example4(arr))
+				throw new AssertionError("results differ for n = " + n);
+		}
+		System.out.println("wrapped to int, the results match example1, example2 and example4");
+
+		int n = 50_000_000;
+		int[] arr = new int[n];
+		Arrays.fill(arr, Integer.MAX_VALUE);		//every int total overflows
+		System.out.println(String.format("sum:           %,d (example1 says %,d)", sum(arr), Exercises.example1(arr)));
+		System.out.println(String.format("even sum:      %,d (example2 says %,d)", sumEvenIndex(arr), Exercises.example2(arr)));
+		BigInteger expected = BigInteger.valueOf(Integer.MAX_VALUE).multiply(BigInteger.valueOf((long) n * (n + 1) / 2));
+		BigInteger prefixSums = sumOfPrefixSums(arr);		//far beyond a long
+		if (!prefixSums.equals(expected))
+			throw new AssertionError("prefix sums " + prefixSums + ", expected " + expected);
+		System.out.println(String.format("prefix sums:   %,d (example4 says %,d)", prefixSums, Exercises.example4(arr)));
+		Arrays.fill(arr, Integer.MIN_VALUE);
+		expected = BigInteger.valueOf(Integer.MIN_VALUE).multiply(BigInteger.valueOf((long) n * (n + 1) / 2));
+		if (!sumOfPrefixSums(arr).equals(expected))
+			throw new AssertionError("prefix sums of MIN_VALUE differ from " + expected);
+		System.out.println("prefix sums of MIN_VALUE match n(n+1)/2 * MIN_VALUE");
+
+		for (int t = 0; t < 3; t++) {		//the first round includes JIT compilation
+			long start = System.nanoTime();
+			Exercises.example1(arr);
+			long middle = System.nanoTime();
+			sum(arr);
+			long end = System.nanoTime();
+			System.out.println(String.format("n: %9d example1 %6.1f ms, sum %6.1f ms", n, (middle - start) / 1e6, (end - middle) / 1e6));
+		}
+	}
+
+}
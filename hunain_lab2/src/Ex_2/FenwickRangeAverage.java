@@ -0,0 +1,133 @@
+package Ex_2;
+
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Range averages over a series that changes. A Fenwick tree (binary
+ * indexed tree) stores partial sums so that both changing one value and
+ * summing any prefix take O(log n), instead of the O(n) needed to redo
+ * prefixAverage2 after every change.
+ *
+ * Entry i of the tree (counting from 1) holds the sum of the lowbit(i)
+ * values ending at x[i-1], where lowbit(i) = i & -i is the lowest set bit
+ * of i. A prefix sum adds the entries found by repeatedly clearing the
+ * lowest bit of the index; an update adds to the entries found by
+ * repeatedly adding it. The tree is built in O(n) by pushing each entry
+ * into its parent once.
+ */
+public class FenwickRangeAverage {
+	private final double[] tree;		//1-based, tree[0] is unused
+	private final double[] values;		//current x, so set() can find the change
+
+	/**
+	 * Builds the tree for a series in O(n). Later changes to x are not seen.
+	 * @param x  the series
+	 */
+	public FenwickRangeAverage(double[] x) {
+		int n = x.length;
+		values = x.clone();
+		tree = new double[n + 1];
+		System.arraycopy(x, 0, tree, 1, n);
+		for (int i = 1; i <= n; i++) {
+			int parent = i + (i & -i);
+			if (parent <= n)
+				tree[parent] += tree[i];		//tree[i] is complete by now, so pass it up once
+		}
+	}
+
+	/**
+	 * Returns the number of values in the series.
+	 * @return the size
+	 */
+	public int size() { return values.length; }
+
+	/**
+	 * Returns the current value at an index.
+	 * @param index  the index
+	 * @return x[index]
+	 * @throws IndexOutOfBoundsException if index is not in the series
+	 */
+	public double get(int index) {
+		Objects.checkIndex(index, values.length);
+		return values[index];
+	}
+
+	/**
+	 * Replaces the value at an index, in O(log n).
+	 * @param index  the index
+	 * @param value  the new value
+	 * @throws IndexOutOfBoundsException if index is not in the series
+	 */
+	public void set(int index, double value) {
+		add(index, value - get(index));
+		values[index] = value;		//stored exactly, not as old + delta
+	}
+
+	/**
+	 * Adds an amount to the value at an index, in O(log n).
+	 * @param index  the index
+	 * @param delta  the amount to add
+	 * @throws IndexOutOfBoundsException if index is not in the series
+	 */
+	public void add(int index, double delta) {
+		Objects.checkIndex(index, values.length);
+		values[index] += delta;
+		for (int i = index + 1; i < tree.length; i += i & -i)
+			tree[i] += delta;
+	}
+
+	/**
+	 * Returns the sum of x[from], ..., x[to-1], in O(log n).
+	 * @param from  first index, inclusive
+	 * @param to    last index, exclusive
+	 * @return the sum, 0 for an empty range
+	 * @throws IndexOutOfBoundsException if the range does not fit in the series
+	 */
+	public double sum(int from, int to) {
+		Objects.checkFromToIndex(from, to, values.length);
+		return prefixSum(to) - prefixSum(from);
+	}
+
+	/**
+	 * Returns the average of x[from], ..., x[to-1], in O(log n).
+	 * @param from  first index, inclusive
+	 * @param to    last index, exclusive
+	 * @return the average, NaN for an empty range
+	 * @throws IndexOutOfBoundsException if the range does not fit in the series
+	 */
+	public double average(int from, int to) {
+		return sum(from, to) / (to - from);
+	}
+
+	/** Returns x[0] + ... + x[count-1]. */
+	private double prefixSum(int count) {
+		double total = 0;
+		for (int i = count; i > 0; i -= i & -i)
+			total += tree[i];
+		return total;
+	}
+
+	public static void main(String[] args) {
+		double[] readings = {4, 8, 15, 16, 23, 42};
+		FenwickRangeAverage averages = new FenwickRangeAverage(readings);
+		System.out.println("average of 8, 15, 16: " + averages.average(1, 4));	//13.0
+		averages.set(2, 30);
+		System.out.println("after x[2] = 30: " + averages.average(1, 4));		//18.0
+
+		//check against RangeAverage rebuilt after every change
+		Random random = new Random(254);
+		double[] series = new double[1000];
+		FenwickRangeAverage fenwick = new FenwickRangeAverage(series);
+		for (int t = 0; t < 10_000; t++) {
+			int index = random.nextInt(series.length);
+			series[index] = random.nextInt(1000);
+			fenwick.set(index, series[index]);
+			int from = random.nextInt(series.length), to = from + random.nextInt(series.length - from) + 1;
+			if (fenwick.average(from, to) != new RangeAverage(series).average(from, to))
+				throw new AssertionError("range " + from + ".." + to);
+		}
+		System.out.println("10000 random updates and queries match RangeAverage");
+	}
+
+}
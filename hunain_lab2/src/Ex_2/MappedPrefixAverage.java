@@ -0,0 +1,112 @@
+package Ex_2;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Prefix averages of a file too large for the heap, such as a multi-GB
+ * sensor dump. The input is a file of little-endian doubles; the output
+ * file receives the prefix average of each one, in the same format.
+ *
+ * Both files are memory-mapped one chunk at a time and processed in a
+ * single streaming pass, the prefixAverage2 loop with its running total
+ * carried from one chunk into the next. The operating system pages the
+ * data in and out, so heap use stays constant whatever the file size, and
+ * the results are written straight into the mapped output with no copying.
+ * The output pages are left for the operating system to write back, as
+ * it does for any file write; forcing each chunk to disk would make the
+ * pass wait on the device, and durability across a power failure is not
+ * needed for a result that can be recomputed.
+ */
+public class MappedPrefixAverage {
+
+	/** Bytes mapped at a time, a multiple of Double.BYTES */
+	private static final long CHUNK_BYTES = 1L << 27;		//128 MB
+
+	/**
+	 * Writes the prefix averages of the doubles in one file to another.
+	 * @param input   file of little-endian doubles
+	 * @param output  file to create or overwrite with the averages
+	 * @throws IOException if a file cannot be read or written, or the input
+	 *                     length is not a multiple of 8 bytes
+	 * @throws IllegalArgumentException if input and output are the same file,
+	 *                     which opening the output would truncate
+	 */
+	public static void prefixAverage(Path input, Path output) throws IOException {
+		if (Files.exists(output) && Files.isSameFile(input, output))
+			throw new IllegalArgumentException("Output " + output + " is the input file");
+		long size = Files.size(input);		//checked before opening the output truncates it
+		if (size % Double.BYTES != 0)
+			throw new IOException(input + " is not a file of doubles: " + size + " bytes");
+		try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.READ,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			double total = 0;		//x[0] + ... + x[j], carried across chunks
+			long j = 0;
+			for (long position = 0; position < size; position += CHUNK_BYTES) {
+				long length = Math.min(CHUNK_BYTES, size - position);
+				DoubleBuffer x = in.map(FileChannel.MapMode.READ_ONLY, position, length)
+						.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+				DoubleBuffer a = out.map(FileChannel.MapMode.READ_WRITE, position, length)	//grows the file
+						.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+				for (int i = 0, n = x.limit(); i < n; i++) {
+					total += x.get(i);
+					a.put(i, total / ++j);
+				}
+			}
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 2) {		//usage: MappedPrefixAverage input output
+			prefixAverage(Path.of(args[0]), Path.of(args[1]));
+			return;
+		}
+
+		//demo: write random doubles to a file, average it and compare with prefixAverage2 in memory
+		int n = 5_000_000;
+		double[] numbers = new Random(254).doubles(n).toArray();
+		Path input = Files.createTempFile("numbers", ".bin");
+		Path output = Files.createTempFile("averages", ".bin");
+		try {
+			try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) n * Double.BYTES)
+						.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().put(numbers);
+			}
+			long start = System.nanoTime();
+			prefixAverage(input, output);
+			System.out.println(String.format("n: %9d took %8.1f milliseconds", n, (System.nanoTime() - start) / 1e6));
+
+			double[] averages = new double[n];
+			try (FileChannel channel = FileChannel.open(output, StandardOpenOption.READ)) {
+				channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+						.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(averages);
+			}
+			System.out.println("matches prefixAverage2: " + Arrays.equals(averages, PrefixAverage.prefixAverage2(numbers)));
+
+			try {
+				prefixAverage(input, input);
+			} catch (IllegalArgumentException e) {
+				System.out.println("rejected: " + e.getMessage() + ", input still " + Files.size(input) + " bytes");
+			}
+
+			Files.write(input, new byte[Double.BYTES + 1]);		//not a whole number of doubles
+			try {
+				prefixAverage(input, output);
+			} catch (IOException e) {
+				System.out.println("rejected: " + e.getMessage() + ", output still " + Files.size(output) + " bytes");
+			}
+		} finally {
+			Files.deleteIfExists(input);
+			Files.deleteIfExists(output);
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+package Ex_2;
+
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+
+/**
+ * The average of the last w values of an input that never ends. The
+ * window is kept in a ring buffer together with its sum, so each new value
+ * costs O(1): it is added to the sum and the value it pushes out of the
+ * window is subtracted. Until w values have arrived the average is over
+ * all of them.
+ *
+ * Adding and subtracting the same values does not cancel exactly in
+ * floating point, so the sum would slowly drift on an endless feed. It is
+ * recomputed from the buffer once every w values, which keeps the error
+ * bounded at an amortized cost of one extra addition per value. Not
+ * thread-safe.
+ */
+public class MovingAverage implements DoubleConsumer {
+	private final double[] window;
+	private int next = 0;			//index the next value is written to
+	private long count = 0;			//values added so far
+	private double sum = 0;			//sum of the values in the window
+
+	/**
+	 * Creates a moving average over the given number of most recent values.
+	 * @param size  the window size
+	 * @throws IllegalArgumentException if size is not positive
+	 */
+	public MovingAverage(int size) {
+		if (size < 1)
+			throw new IllegalArgumentException("Window size must be positive");
+		window = new double[size];
+	}
+
+	/**
+	 * Adds the next value, pushing the oldest one out of a full window.
+	 * @param value  the value to add
+	 */
+	@Override
+	public void accept(double value) {
+		sum += value - window[next];		//the slot holds 0 until the window first fills
+		window[next] = value;
+		count++;
+		if (++next == window.length) {
+			next = 0;
+			sum = 0;						//once per window: drop the accumulated drift
+			for (double v : window)
+				sum += v;
+		}
+	}
+
+	/**
+	 * Returns the average of the values in the window.
+	 * @return the average, or NaN if no value has been added
+	 */
+	public double average() {
+		return (count == 0) ? Double.NaN : sum / Math.min(count, window.length);
+	}
+
+	/**
+	 * Returns the number of values added so far.
+	 * @return the count
+	 */
+	public long count() { return count; }
+
+	/**
+	 * Adds each value of a stream as it is consumed and emits the moving
+	 * average after it. The result is lazy and must be consumed in order,
+	 * so it should not be made parallel.
+	 * @param values  the values to add
+	 * @return the moving averages, one per value
+	 */
+	public DoubleStream averages(DoubleStream values) {
+		return values.sequential().map(value -> {
+			accept(value);
+			return average();
+		});
+	}
+
+	public static void main(String[] args) {
+		MovingAverage moving = new MovingAverage(3);
+		StringBuilder sb = new StringBuilder("moving average of 1 to 6 over 3: ");
+		moving.averages(DoubleStream.of(1, 2, 3, 4, 5, 6)).forEach(average -> sb.append(average).append(' '));
+		System.out.println(sb);
+
+		//an endless feed of 0.1s: the sum is reset every window, so the average does not drift
+		MovingAverage feed = new MovingAverage(1000);
+		for (long i = 0; i < 100_000_000L; i++)
+			feed.accept((i % 2 == 0) ? 1e9 + 0.1 : 0.1 - 1e9);
+		for (int i = 0; i < 1000; i++)
+			feed.accept(0.1);
+		System.out.println("after 1e8 large values, average of 1000 x 0.1: " + feed.average());
+	}
+
+}
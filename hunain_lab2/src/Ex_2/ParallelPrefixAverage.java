@@ -0,0 +1,131 @@
+package Ex_2;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Prefix averages computed on all cores. prefixAverage2 carries one
+ * running total from start to end, which no other thread can help with;
+ * here the array is cut into blocks and the work is done in two parallel
+ * passes around a short sequential one:
+ *
+ *    1. every block computes its own sum, in parallel;
+ *    2. the block sums are added up in order, giving each block its offset,
+ *       the total of everything before it;
+ *    3. every block runs the prefixAverage2 loop starting from its offset,
+ *       in parallel.
+ *
+ * Each element is read twice, but both reading passes are spread over all
+ * cores, and pass 2 only touches one value per block.
+ *
+ * In compensated mode every running total is a Neumaier sum (an improved
+ * Kahan sum), which carries the rounding error of each addition in a
+ * second variable. The error of a prefix sum then stays around one unit in
+ * the last place instead of growing with the number of elements, which
+ * matters on the 512M-element arrays the harness builds.
+ */
+public class ParallelPrefixAverage {
+
+	/** Smallest block worth handing to another thread */
+	private static final int MIN_BLOCK = 1 << 14;
+
+	/** Returns an array a such that, for all j, a[j] equals the average of x[0], ..., x[j]. */
+	public static double[] prefixAverage(double[] x) {
+		return prefixAverage(x, false);
+	}
+
+	/**
+	 * Returns an array a such that, for all j, a[j] equals the average of x[0], ..., x[j].
+	 * @param x            the values to average
+	 * @param compensated  true to use Neumaier summation, which is more accurate but slower
+	 * @return the prefix averages
+	 */
+	public static double[] prefixAverage(double[] x, boolean compensated) {
+		int n = x.length;
+		double[] a = new double[n];
+		int blockSize = Math.max(MIN_BLOCK, n / (4 * Runtime.getRuntime().availableProcessors()) + 1);
+		int blocks = (int) (((long) n + blockSize - 1) / blockSize);
+
+		// pass 1: the sum of every block, with its rounding error in compensated mode
+		double[] sums = new double[blocks];
+		double[] errors = new double[blocks];
+		IntStream.range(0, blocks).parallel().forEach(b -> {
+			int end = (int) Math.min(n, (long) (b + 1) * blockSize);
+			double total = 0, error = 0;
+			for (int j = b * blockSize; j < end; j++) {
+				if (compensated) {
+					double t = total + x[j];
+					error += twoSumError(total, x[j], t);
+					total = t;
+				} else
+					total += x[j];
+			}
+			sums[b] = total;
+			errors[b] = error;
+		});
+
+		// pass 2: turn the block sums into the offset of each block, in order
+		double total = 0, error = 0;
+		for (int b = 0; b < blocks; b++) {
+			double sum = sums[b], sumError = errors[b];
+			sums[b] = total;		//sums[b] and errors[b] now hold the offset
+			errors[b] = error;
+			double t = total + sum;
+			if (compensated)
+				error += twoSumError(total, sum, t) + sumError;
+			total = t;
+		}
+
+		// pass 3: the prefix averages of every block, starting from its offset
+		IntStream.range(0, blocks).parallel().forEach(b -> {
+			int end = (int) Math.min(n, (long) (b + 1) * blockSize);
+			double running = sums[b], runningError = errors[b];
+			for (int j = b * blockSize; j < end; j++) {
+				if (compensated) {
+					double t = running + x[j];
+					runningError += twoSumError(running, x[j], t);
+					running = t;
+					a[j] = (running + runningError) / (j+1);
+				} else {
+					running += x[j];
+					a[j] = running / (j+1);
+				}
+			}
+		});
+		return a;
+	}
+
+	/** Returns the rounding error of sum = a + b (Neumaier's correction term). */
+	private static double twoSumError(double a, double b, double sum) {
+		return (Math.abs(a) >= Math.abs(b)) ? (a - sum) + b : (b - sum) + a;
+	}
+
+	public static void main(String[] args) {
+		int n = 10_000_000;
+		double[] numbers = new double[n];
+		Arrays.fill(numbers, 1.2);		//every prefix average should be exactly 1.2
+
+		for (int t = 0; t < 3; t++) {		//the first round includes JIT compilation
+			long start = System.nanoTime();
+			double[] sequential = PrefixAverage.prefixAverage2(numbers);
+			long middle = System.nanoTime();
+			double[] parallel = prefixAverage(numbers);
+			long end = System.nanoTime();
+			double[] compensated = prefixAverage(numbers, true);
+			long last = System.nanoTime();
+			System.out.println(String.format("n: %9d  prefixAverage2 %8.1f ms, parallel %8.1f ms, compensated %8.1f ms",
+					n, (middle - start) / 1e6, (end - middle) / 1e6, (last - end) / 1e6));
+			if (t == 2)
+				System.out.println(String.format("largest error:    %.3e %17.3e %20.3e",
+						maxError(sequential), maxError(parallel), maxError(compensated)));
+		}
+	}
+
+	private static double maxError(double[] averages) {
+		double worst = 0;
+		for (double average : averages)
+			worst = Math.max(worst, Math.abs(average - 1.2));
+		return worst;
+	}
+
+}
@@ -21,7 +21,14 @@
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 package Ex_2;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.chart.LineChart;
@@ -40,27 +47,52 @@ public class PrefixAverage extends Application{		//public is required to run the
 
   /** Returns an array a such that, for all j, a[j] equals the average of x[0], ..., x[j]. */
   public static double[] prefixAverage1(double[] x) {
-    int n = x.length;
-    double[] a = new double[n];    // filled with zeros by default
-    for (int j=0; j < n; j++) {
-      double total = 0;            // begin computing x[0] + ... + x[j]
-      for (int i=0; i <= j; i++)
+    double[] a = new double[x.length];   // filled with zeros by default
+    prefixAverage1(x, 0, x.length, a);
+    return a;
+  }
+
+  /**
+   * Sets a[j] to the average of x[from], ..., x[j] for from <= j < to,
+   * without allocating. The output may be the input itself: the averages
+   * are computed from the last one down, so each a[j] is written only
+   * after every average that needs x[j] has been computed.
+   *
+   * @throws IndexOutOfBoundsException if the range does not fit in x or in a
+   */
+  public static void prefixAverage1(double[] x, int from, int to, double[] a) {
+    Objects.checkFromToIndex(from, to, x.length);
+    Objects.checkFromToIndex(from, to, a.length);
+    for (int j=to-1; j >= from; j--) {
+      double total = 0;            // begin computing x[from] + ... + x[j]
+      for (int i=from; i <= j; i++)
         total += x[i];
-      a[j] = total / (j+1);        // record the average
+      a[j] = total / (j-from+1);   // record the average
     }
-    return a;
   }
 
   /** Returns an array a such that, for all j, a[j] equals the average of x[0], ..., x[j]. */
   public static double[] prefixAverage2(double[] x) {
-    int n = x.length;
-    double[] a = new double[n];    // filled with zeros by default
-    double total = 0;              // compute prefix sum as x[0] + x[1] + ...
-    for (int j=0; j < n; j++) {
+    double[] a = new double[x.length];   // filled with zeros by default
+    prefixAverage2(x, 0, x.length, a);
+    return a;
+  }
+
+  /**
+   * Sets a[j] to the average of x[from], ..., x[j] for from <= j < to,
+   * without allocating. The output may be the input itself, since x[j]
+   * is read before a[j] is written.
+   *
+   * @throws IndexOutOfBoundsException if the range does not fit in x or in a
+   */
+  public static void prefixAverage2(double[] x, int from, int to, double[] a) {
+    Objects.checkFromToIndex(from, to, x.length);
+    Objects.checkFromToIndex(from, to, a.length);
+    double total = 0;              // compute prefix sum as x[from] + x[from+1] + ...
+    for (int j=from; j < to; j++) {
       total += x[j];               // update prefix sum to include x[j]
-      a[j] = total / (j+1);        // compute average based on current sum
+      a[j] = total / (j-from+1);   // compute average based on current sum
     }
-    return a;
   }
   
   private static int trials = 10;		//for start method implementation main variables need to be out of main for graph values and size.
@@ -68,10 +100,69 @@ public class PrefixAverage extends Application{		//public is required to run the
   private static double[] pATwoSeries = new double[trials];
   private static double[] pAOneSeries = new double[trials];
 
-  public static void main(String[] args) {
+  /**
+   * Fills the chart series from a JMH results file in CSV format, as
+   * written by benchmarks.PrefixAverageBenchmark. Rows are matched by
+   * the benchmark method name and the n parameter; the secondary rows
+   * added by profilers (names containing ':') are skipped.
+   *
+   * @param csv  path of the results file
+   * @throws IOException if the file cannot be read or lacks the expected columns
+   */
+  static void loadResults(Path csv) throws IOException {
+	  List<String> lines = Files.readAllLines(csv);
+	  if (lines.isEmpty()) throw new IOException(csv + " is empty");
+	  List<String> header = Arrays.asList(splitCsv(lines.get(0)));
+	  int nameCol = header.indexOf("Benchmark");
+	  int scoreCol = header.indexOf("Score");
+	  int nCol = header.indexOf("Param: n");
+	  if (nameCol < 0 || scoreCol < 0 || nCol < 0)
+		  throw new IOException(csv + " is not a JMH CSV file with an n parameter");
+
+	  Map<Integer, Double> one = new TreeMap<>();	//sorted by n, so the series come out in order
+	  Map<Integer, Double> two = new TreeMap<>();
+	  for (String line : lines.subList(1, lines.size())) {
+		  String[] row = splitCsv(line);
+		  if (row.length <= Math.max(nameCol, Math.max(scoreCol, nCol)) || row[nameCol].contains(":"))
+			  continue;
+		  int size = Integer.parseInt(row[nCol]);
+		  double millis = Double.parseDouble(row[scoreCol]);
+		  if (row[nameCol].endsWith(".prefixAverage1")) one.put(size, millis);
+		  else if (row[nameCol].endsWith(".prefixAverage2")) two.put(size, millis);
+	  }
+
+	  trials = two.size();
+	  xSeries = new int[trials];
+	  pATwoSeries = new double[trials];
+	  pAOneSeries = new double[trials];
+	  int t = 0;
+	  for (Map.Entry<Integer, Double> entry : two.entrySet()) {
+		  xSeries[t] = entry.getKey();
+		  pATwoSeries[t] = Math.log10(entry.getValue());
+		  pAOneSeries[t] = Math.log10(one.getOrDefault(entry.getKey(), Double.NaN));	//NaN points are not drawn
+		  t++;
+	  }
+  }
+
+  /** Splits one line of JMH CSV output, whose fields contain no commas, and strips the quotes. */
+  private static String[] splitCsv(String line) {
+	  String[] fields = line.split(",");
+	  for (int i = 0; i < fields.length; i++)
+		  fields[i] = fields[i].trim().replaceAll("^\"|\"$", "");
+	  return fields;
+  }
+
+  public static void main(String[] args) throws IOException {
+	    if (args.length > 0) {		//plot JMH results (see benchmarks.PrefixAverageBenchmark) instead of timing here
+	    	loadResults(Path.of(args[0]));
+	    	launch(args);
+	    	return;
+	    }
+	    
 	    int n = 1000;                           // starting size
-	    double[] numbers = new double[n];
-	    Arrays.fill(numbers, 1.2);	 
+	    double[] numbers = new double[n << (trials - 1)];	//sized for the largest run and filled once, each run uses the first n entries
+	    Arrays.fill(numbers, 1.2);
+	    double[] avg = new double[numbers.length];		//output buffer shared by every run, so no run allocates
 	    
 	    //removed choice of n, trials selection, not relevant for this question
 	    int start = n;  // remember the original starting value
@@ -80,34 +171,28 @@ public class PrefixAverage extends Application{		//public is required to run the
 	    System.out.println("Testing prefixAverage2...");
 	    for (int t=0; t < trials; t++) {
 	      long startTime = System.currentTimeMillis();
-	      double[] avg = prefixAverage2(numbers);
+	      prefixAverage2(numbers, 0, n, avg);
 	      long endTime = System.currentTimeMillis();
 	      long elapsed = endTime - startTime;
 	      System.out.println(String.format("n: %9d took %12d milliseconds", n, elapsed));
 	      xSeries[t] = n;
 	      pATwoSeries[t] = Math.log10(elapsed);
 	      
-	      n *= 2;
-	      numbers = new double[n];
-		  Arrays.fill(numbers, 1.2);// double the problem size
+	      n *= 2;                                // double the problem size
 	    }
 
 	    System.out.println("Testing prefixAverage1...");
 	    n = start;                               // restore n to its start value
-	    numbers = new double[n];		//reset array back to default size and values
-		Arrays.fill(numbers, 1.2);
 		
 	    for (int t=0; t < trials; t++) {
 	      long startTime = System.currentTimeMillis();
-	      double[] avg = prefixAverage1(numbers);
+	      prefixAverage1(numbers, 0, n, avg);
 	      long endTime = System.currentTimeMillis();
 	      long elapsed = endTime - startTime;
 	      System.out.println(String.format("n: %9d took %12d milliseconds", n, elapsed));
 	      pAOneSeries[t] = Math.log10(elapsed);
 	      
 	      n *= 2;                                // double the problem size
-	      numbers = new double[n];
-		  Arrays.fill(numbers, 1.2);// double the problem size
 	    }
 	    
 	    launch(args);	//required to start the start method to start setting up graph
@@ -118,7 +203,8 @@ public class PrefixAverage extends Application{		//public is required to run the
 	  
 	  NumberAxis x = new NumberAxis();
 	  x.setLabel("List size");
-	  NumberAxis y = new NumberAxis(0,6,1); //force scaling, might need to make dynamic for future
+	  NumberAxis y = new NumberAxis(); //scales to the data, benchmark results can fall below 1 ms (negative logs)
+	  y.setForceZeroInRange(false);
 	  y.setLabel("Log of Milliseconds");
 	  
 	  LineChart<Number, Number> lineChart = new LineChart<>(x,y);
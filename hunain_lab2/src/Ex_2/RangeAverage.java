@@ -0,0 +1,68 @@
+package Ex_2;
+
+import java.util.Objects;
+
+/**
+ * Answers "what is the average of x[from], ..., x[to-1]?" for any range in
+ * O(1), for dashboards that query the same series over and over. The
+ * prefix sums computed by prefixAverage2 are kept in a table, so the sum
+ * of a range is the difference of two entries:
+ *
+ *    x[from] + ... + x[to-1] = prefix[to] - prefix[from]
+ *
+ * Building the table takes O(n) time and n+1 doubles. The series cannot
+ * change afterwards; FenwickRangeAverage supports updates.
+ */
+public class RangeAverage {
+	private final double[] prefix;		//prefix[j] = x[0] + ... + x[j-1]
+
+	/**
+	 * Builds the prefix-sum table of a series. Later changes to x are not seen.
+	 * @param x  the series
+	 */
+	public RangeAverage(double[] x) {
+		prefix = new double[x.length + 1];
+		for (int j = 0; j < x.length; j++)
+			prefix[j + 1] = prefix[j] + x[j];
+	}
+
+	/**
+	 * Returns the number of values in the series.
+	 * @return the size
+	 */
+	public int size() { return prefix.length - 1; }
+
+	/**
+	 * Returns the sum of x[from], ..., x[to-1].
+	 * @param from  first index, inclusive
+	 * @param to    last index, exclusive
+	 * @return the sum, 0 for an empty range
+	 * @throws IndexOutOfBoundsException if the range does not fit in the series
+	 */
+	public double sum(int from, int to) {
+		Objects.checkFromToIndex(from, to, size());
+		return prefix[to] - prefix[from];
+	}
+
+	/**
+	 * Returns the average of x[from], ..., x[to-1]; average(0, j+1) is the
+	 * prefix average a[j].
+	 * @param from  first index, inclusive
+	 * @param to    last index, exclusive
+	 * @return the average, NaN for an empty range
+	 * @throws IndexOutOfBoundsException if the range does not fit in the series
+	 */
+	public double average(int from, int to) {
+		return sum(from, to) / (to - from);
+	}
+
+	public static void main(String[] args) {
+		double[] readings = {4, 8, 15, 16, 23, 42};
+		RangeAverage averages = new RangeAverage(readings);
+		System.out.println("average of all: " + averages.average(0, 6));		//18.0
+		System.out.println("average of 8, 15, 16: " + averages.average(1, 4));	//13.0
+		System.out.println("prefix average a[2]: " + averages.average(0, 3)
+				+ " = " + PrefixAverage.prefixAverage2(readings)[2]);
+	}
+
+}
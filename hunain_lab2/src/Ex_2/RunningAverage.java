@@ -0,0 +1,68 @@
+package Ex_2;
+
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+
+/**
+ * The prefix averages of an input that never ends, such as a telemetry
+ * feed. Values are consumed one at a time and the average of everything
+ * seen so far is available after each one, in O(1) time and memory: no
+ * history is kept, only the count and the current average.
+ *
+ * The average is updated with Welford's formula, mean += (x - mean) / count,
+ * rather than by dividing a running total, so it cannot overflow and stays
+ * accurate however many values arrive. Not thread-safe.
+ */
+public class RunningAverage implements DoubleConsumer {
+	private long count = 0;
+	private double mean = 0;
+
+	/**
+	 * Adds the next value.
+	 * @param value  the value to add
+	 */
+	@Override
+	public void accept(double value) {
+		count++;
+		mean += (value - mean) / count;
+	}
+
+	/**
+	 * Returns the average of all values added so far.
+	 * @return the average, or NaN if no value has been added
+	 */
+	public double average() { return (count == 0) ? Double.NaN : mean; }
+
+	/**
+	 * Returns the number of values added so far.
+	 * @return the count
+	 */
+	public long count() { return count; }
+
+	/**
+	 * Adds each value of a stream as it is consumed and emits the running
+	 * average after it, like prefixAverage2 on a stream. The result is lazy
+	 * and must be consumed in order, so it should not be made parallel.
+	 * @param values  the values to add
+	 * @return the running averages, one per value
+	 */
+	public DoubleStream averages(DoubleStream values) {
+		return values.sequential().map(value -> {
+			accept(value);
+			return mean;
+		});
+	}
+
+	public static void main(String[] args) {
+		RunningAverage running = new RunningAverage();
+		for (double reading : new double[] {3, 5, 7, 9})
+			running.accept(reading);
+		System.out.println("average of 3 5 7 9: " + running.average());
+
+		//an endless feed: only as much of it as is consumed is ever generated
+		new RunningAverage().averages(DoubleStream.iterate(1, x -> x + 1))
+				.skip(999_999).limit(1)
+				.forEach(average -> System.out.println("average of 1 to 1000000: " + average));
+	}
+
+}
@@ -0,0 +1,341 @@
+package Ex_3;
+
+import java.util.Arrays;
+
+/**
+ * Approximate answers to the questions Uniqueness answers exactly, for
+ * inputs too large to copy and sort. A Bloom filter narrows the search
+ * for duplicates to a few candidates, or flags likely duplicates within a
+ * fixed memory budget, and a HyperLogLog sketch estimates how many
+ * distinct values there are within a configurable error rate or memory
+ * budget.
+ */
+public class ApproximateUniqueness {
+
+	/**
+	 * Returns true if there are no duplicate elements in the array. A
+	 * blocked Bloom filter makes one pass and collects the values it has
+	 * possibly seen before; every duplicate is among them, so a second pass
+	 * counts just those candidates exactly. The answer is always correct:
+	 * the filter's false positive rate, 1 to 5% of lookups, only decides
+	 * how many candidates are rechecked. Each value sets 4 bits within a
+	 * single 64-bit word, so a lookup costs one cache miss rather than one
+	 * per bit. With the recheck it runs about half as fast as unique3, which
+	 * makes one random access per value too, but the filter takes at most
+	 * 1 byte per value, against 4 for unique2's copy and 8 to 16 for
+	 * unique3's table.
+	 *
+	 * @param data  the values to check
+	 * @return true if the values are unique, false otherwise
+	 */
+	public static boolean unique(int[] data) {
+		int n = data.length;
+		long[] words = new long[Integer.highestOneBit(Math.max(1, n / 8))];		//4 to 8 bits per value
+		int mask = words.length - 1;
+		int limit = n / 16;		//far more candidates than expected means duplicates abound
+		int[] candidates = new int[Math.max(16, n / 256)];
+		int count = 0;
+		for (int value : data) {
+			long h = hash(value);
+			int word = (int) (h >>> 32) & mask;
+			long bits = (1L << h) | (1L << (h >>> 6)) | (1L << (h >>> 12)) | (1L << (h >>> 18));		//shifts use the low 6 bits
+			if ((words[word] & bits) != bits) {
+				words[word] |= bits;
+				continue;
+			}
+			if (count == limit)
+				return Uniqueness.unique3(data);		//stops at the first of many duplicates
+			if (count == candidates.length)
+				candidates = Arrays.copyOf(candidates, Math.min(limit, 2 * count));
+			candidates[count++] = value;
+		}
+		return count == 0 || !occursTwice(data, candidates, count);
+	}
+
+	/**
+	 * Tests whether any of the candidate values occurs more than once in
+	 * the array, counting the candidates in an open-addressing table.
+	 */
+	private static boolean occursTwice(int[] data, int[] candidates, int count) {
+		int capacity = Integer.highestOneBit(2 * count - 1) << 1;		//power of two, at least 2 * count
+		int mask = capacity - 1;
+		int[] keys = new int[capacity];
+		byte[] seen = new byte[capacity];		//0 marks an empty slot, otherwise 1 + occurrences so far
+		for (int j = 0; j < count; j++) {
+			int slot = (int) hash(candidates[j]) & mask;
+			while (seen[slot] != 0 && keys[slot] != candidates[j])
+				slot = (slot + 1) & mask;
+			keys[slot] = candidates[j];
+			seen[slot] = 1;
+		}
+		for (int value : data) {
+			int slot = (int) hash(value) & mask;
+			while (seen[slot] != 0) {
+				if (keys[slot] == value) {
+					if (++seen[slot] > 2)
+						return true;		//found duplicate pair
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Tests whether the array is probably free of duplicates using at most
+	 * the given memory. A true answer is always correct, since a repeated
+	 * value finds all of its bits already set. A false answer can be wrong:
+	 * each lookup errs with probability at most p = (1 - e^(-kn/m))^k for
+	 * m bits and k hashes, so a unique array of n values is misreported
+	 * with probability at most 1 - (1 - p)^n, roughly n * p when that is
+	 * small. For the exact answer use unique.
+	 *
+	 * @param data         the values to check
+	 * @param memoryBytes  size of the Bloom filter in bytes
+	 * @return true if the values are certainly unique, false if a duplicate is likely
+	 */
+	public static boolean probablyUniqueWithin(int[] data, long memoryBytes) {
+		long bits = 8 * memoryBytes;
+		BloomFilter filter = new BloomFilter(bits, BloomFilter.optimalHashes(Math.max(1, data.length), bits));
+		for (int value : data)
+			if (filter.add(value))
+				return false;		//likely duplicate pair
+		return true;
+	}
+
+	/**
+	 * Estimates the number of distinct values in the array with a
+	 * HyperLogLog sketch.
+	 *
+	 * @param data           the values to count
+	 * @param relativeError  target standard error of the estimate, e.g. 0.01 for 1%
+	 * @return the estimated number of distinct values
+	 */
+	public static long estimateDistinct(int[] data, double relativeError) {
+		HyperLogLog sketch = HyperLogLog.withRelativeError(relativeError);
+		for (int value : data)
+			sketch.add(value);
+		return sketch.estimate();
+	}
+
+	/** Scrambles an int into 64 well-mixed bits (the SplitMix64 finalizer). */
+	static long hash(int value) {
+		long z = value * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * A Bloom filter over ints. Each value sets k bits of an m-bit array,
+	 * chosen by double hashing (h1 + i * h2) from one 64-bit hash of the value.
+	 */
+	public static class BloomFilter {
+		private final long[] bits;
+		private final long numBits;
+		private final int numHashes;
+
+		/**
+		 * Creates a filter sized for the given number of values and false positive rate.
+		 * @param expectedInsertions  number of values that will be added
+		 * @param falsePositiveRate   target false positive rate, between 0 and 1
+		 * @throws IllegalArgumentException if an argument is out of range
+		 */
+		public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+			this(optimalBits(expectedInsertions, falsePositiveRate),
+					optimalHashes(expectedInsertions, optimalBits(expectedInsertions, falsePositiveRate)));
+		}
+
+		/**
+		 * Creates a filter of the given size, for a fixed memory budget.
+		 * @param numBits    number of bits in the filter (its memory is numBits / 8 bytes)
+		 * @param numHashes  number of bits set per value
+		 * @throws IllegalArgumentException if an argument is out of range
+		 */
+		public BloomFilter(long numBits, int numHashes) {
+			if (numBits < 1 || numBits > 64L * Integer.MAX_VALUE || numHashes < 1)
+				throw new IllegalArgumentException("Bloom filter needs at least one bit and one hash");
+			this.bits = new long[(int) ((numBits + 63) / 64)];
+			this.numBits = numBits;
+			this.numHashes = numHashes;
+		}
+
+		/**
+		 * Returns the number of hashes that minimizes false positives for a
+		 * filter of the given size, useful with the memory budget constructor.
+		 * @param expectedInsertions  number of values that will be added
+		 * @param numBits             number of bits in the filter
+		 * @return the best number of bits to set per value
+		 */
+		public static int optimalHashes(long expectedInsertions, long numBits) {
+			if (expectedInsertions < 1)
+				throw new IllegalArgumentException("Expected insertions must be positive");
+			return Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+		}
+
+		private static long optimalBits(long expectedInsertions, double falsePositiveRate) {
+			if (expectedInsertions < 1)
+				throw new IllegalArgumentException("Expected insertions must be positive");
+			if (!(falsePositiveRate > 0 && falsePositiveRate < 1))
+				throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+			return (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		}
+
+		/**
+		 * Adds a value to the filter.
+		 * @param value  the value to add
+		 * @return true if the value was possibly added before, false if it certainly was not
+		 */
+		public boolean add(int value) {
+			long h1 = hash(value), h2 = h1 * 0xC2B2AE3D27D4EB4FL | 1;
+			boolean seen = true;
+			for (int i = 0; i < numHashes; i++) {
+				long bit = bit(h1 + i * h2);
+				long mask = 1L << bit;
+				int word = (int) (bit >>> 6);
+				if ((bits[word] & mask) == 0) {
+					seen = false;
+					bits[word] |= mask;
+				}
+			}
+			return seen;
+		}
+
+		/**
+		 * Tests whether a value might have been added.
+		 * @param value  the value to look up
+		 * @return true if the value was possibly added, false if it certainly was not
+		 */
+		public boolean mightContain(int value) {
+			long h1 = hash(value), h2 = h1 * 0xC2B2AE3D27D4EB4FL | 1;
+			for (int i = 0; i < numHashes; i++) {
+				long bit = bit(h1 + i * h2);
+				if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0)
+					return false;
+			}
+			return true;
+		}
+
+		/** Maps a 64-bit hash onto [0, numBits) with a multiply instead of a much slower remainder. */
+		private long bit(long hash) {
+			return Math.unsignedMultiplyHigh(hash, numBits);
+		}
+	}
+
+	/**
+	 * A HyperLogLog sketch (Flajolet et al., 2007) over ints. It keeps 2^p
+	 * one-byte registers, so memory is 2^p bytes and the standard error of
+	 * the estimate is about 1.04 / sqrt(2^p).
+	 */
+	public static class HyperLogLog {
+		private final int precision;
+		private final byte[] registers;
+
+		/**
+		 * Creates a sketch with 2^precision registers.
+		 * @param precision  log2 of the number of registers, from 4 to 24
+		 * @throws IllegalArgumentException if precision is out of range
+		 */
+		public HyperLogLog(int precision) {
+			if (precision < 4 || precision > 24)
+				throw new IllegalArgumentException("Precision must be between 4 and 24");
+			this.precision = precision;
+			this.registers = new byte[1 << precision];
+		}
+
+		/**
+		 * Creates the smallest sketch whose standard error is at most the given fraction.
+		 * @param relativeError  target standard error, e.g. 0.01 for 1%
+		 * @return a new, empty sketch
+		 */
+		public static HyperLogLog withRelativeError(double relativeError) {
+			if (!(relativeError > 0 && relativeError < 1))
+				throw new IllegalArgumentException("Relative error must be between 0 and 1");
+			double registers = Math.pow(1.04 / relativeError, 2);
+			int precision = (int) Math.ceil(Math.log(registers) / Math.log(2));
+			return new HyperLogLog(Math.max(4, Math.min(24, precision)));
+		}
+
+		/**
+		 * Creates the most precise sketch that fits in the given memory.
+		 * @param memoryBytes  size of the registers in bytes, at least 16
+		 * @return a new, empty sketch
+		 */
+		public static HyperLogLog withMemoryBudget(long memoryBytes) {
+			if (memoryBytes < 16)
+				throw new IllegalArgumentException("Memory budget must be at least 16 bytes");
+			return new HyperLogLog(Math.min(24, 63 - Long.numberOfLeadingZeros(memoryBytes)));
+		}
+
+		/**
+		 * Adds a value to the sketch.
+		 * @param value  the value to add
+		 */
+		public void add(int value) {
+			long h = hash(value);
+			int index = (int) (h >>> (64 - precision));		//top bits pick the register
+			long rest = h << precision;						//remaining bits give the rank
+			int rank = (rest == 0) ? 64 - precision + 1 : Long.numberOfLeadingZeros(rest) + 1;
+			if (rank > registers[index])
+				registers[index] = (byte) rank;
+		}
+
+		/**
+		 * Returns the estimated number of distinct values added so far.
+		 * @return the estimate
+		 */
+		public long estimate() {
+			int m = registers.length;
+			double sum = 0;
+			int zeros = 0;
+			for (byte r : registers) {
+				sum += 1.0 / (1L << r);
+				if (r == 0) zeros++;
+			}
+			double alpha = (m == 16) ? 0.673 : (m == 32) ? 0.697 : (m == 64) ? 0.709 : 0.7213 / (1 + 1.079 / m);
+			double estimate = alpha * m * m / sum;
+			if (estimate <= 2.5 * m && zeros > 0)		//small range: linear counting is more accurate
+				estimate = m * Math.log((double) m / zeros);
+			return Math.round(estimate);
+		}
+	}
+
+	public static void main(String[] args) {
+		int n = 10_000_000;
+		int[] data = new int[n];
+		for (int i = 0; i < n; i++)
+			data[i] = 0 - i;		//same unique input as Uniqueness.main
+
+		for (int round = 0; round < 3; round++) {		//the first rounds warm up the JIT
+			long start = System.nanoTime();
+			boolean unique = unique(data);
+			long filtered = System.nanoTime() - start;
+			start = System.nanoTime();
+			Uniqueness.unique2(data);
+			long sorted = System.nanoTime() - start;
+			start = System.nanoTime();
+			Uniqueness.unique3(data);
+			long hashed = System.nanoTime() - start;
+			System.out.println(String.format("unique: %b (%.1f ms), unique2 %.1f ms, unique3 %.1f ms",
+					unique, filtered / 1e6, sorted / 1e6, hashed / 1e6));
+		}
+
+		long start = System.nanoTime();
+		boolean unique = probablyUniqueWithin(data, 16 << 20);		//about 13 bits per value, so a false alarm is likely
+		System.out.println(String.format("probably unique in 16 MB: %b (%.1f ms)", unique, (System.nanoTime() - start) / 1e6));
+
+		data[n - 1] = data[0];		//plant a duplicate
+		System.out.println("after planting a duplicate: " + unique(data));
+
+		start = System.nanoTime();
+		long distinct = estimateDistinct(data, 0.01);
+		System.out.println(String.format("estimated distinct: %d of %d (%.1f ms)", distinct, n - 1, (System.nanoTime() - start) / 1e6));
+
+		HyperLogLog small = HyperLogLog.withMemoryBudget(1024);		//about 3% error
+		for (int value : data)
+			small.add(value);
+		System.out.println("estimated distinct in 1 KB: " + small.estimate());
+	}
+
+}
@@ -0,0 +1,126 @@
+package Ex_3;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Duplicate detection over an unbounded stream of ints fed by any number
+ * of threads at once. Unlike unique1 and unique2 it never needs the whole
+ * input: every value seen so far is recorded as one bit of a bitmap over
+ * the full 32-bit domain.
+ *
+ * The bitmap is split into 65536 chunks of 65536 bits (8 KB each), which
+ * are only allocated once a value in their range arrives, so memory grows
+ * with the spread of the values rather than with the length of the
+ * stream, and never exceeds 512 MB. Bits are set with an atomic
+ * fetch-and-or, so add() takes no locks, and exactly one thread observes
+ * each duplicate.
+ */
+public class StreamingUniqueness {
+
+	/** log2 of the number of values covered by one chunk */
+	private static final int CHUNK_BITS = 16;
+
+	/** Value reported by firstDuplicate before any duplicate has arrived */
+	private static final long NONE = Long.MIN_VALUE;
+
+	/** Atomic access to the words of a chunk */
+	private static final VarHandle WORD = MethodHandles.arrayElementVarHandle(long[].class);
+
+	private final AtomicReferenceArray<long[]> chunks =
+			new AtomicReferenceArray<>(1 << (32 - CHUNK_BITS));		//chunk i covers values with high bits i
+	private final AtomicLong firstDuplicate = new AtomicLong(NONE);
+	private final IntConsumer onDuplicate;
+
+	/** Creates a checker that only records the first duplicate. */
+	public StreamingUniqueness() { this(value -> { }); }
+
+	/**
+	 * Creates a checker that also reports the first duplicate as soon as it arrives.
+	 * @param onDuplicate  called once, by the thread that added the first repeated value
+	 */
+	public StreamingUniqueness(IntConsumer onDuplicate) {
+		this.onDuplicate = onDuplicate;
+	}
+
+	/**
+	 * Records a value from the stream. Safe to call from many threads at once.
+	 * @param value  the next value
+	 * @return true if the value had not been seen before, false if it is a duplicate
+	 */
+	public boolean add(int value) {
+		int bit = value & ((1 << CHUNK_BITS) - 1);
+		long mask = 1L << bit;		//shift distance uses the low 6 bits, the position within the word
+		long before = (long) WORD.getAndBitwiseOr(chunk(value >>> CHUNK_BITS), bit >>> 6, mask);
+		if ((before & mask) == 0)
+			return true;
+		if (firstDuplicate.compareAndSet(NONE, value))		//only the first duplicate is reported
+			onDuplicate.accept(value);
+		return false;
+	}
+
+	/**
+	 * Records every value of a stream, stopping at the first duplicate.
+	 * Parallel streams are processed in parallel.
+	 * @param values  the values to add
+	 * @return true if none of the values had been seen before
+	 */
+	public boolean addAll(IntStream values) {
+		return values.allMatch(this::add);
+	}
+
+	/**
+	 * Tells whether any duplicate has been added so far.
+	 * @return true once some value has been added twice
+	 */
+	public boolean hasDuplicate() { return firstDuplicate.get() != NONE; }
+
+	/**
+	 * Returns the first duplicate that was detected, if any.
+	 * @return the first repeated value, or an empty OptionalInt
+	 */
+	public OptionalInt firstDuplicate() {
+		long value = firstDuplicate.get();
+		return (value == NONE) ? OptionalInt.empty() : OptionalInt.of((int) value);
+	}
+
+	/** Returns the chunk with the given index, allocating it on first use. */
+	private long[] chunk(int index) {
+		long[] chunk = chunks.get(index);
+		if (chunk == null) {
+			long[] created = new long[1 << (CHUNK_BITS - 6)];
+			chunk = chunks.compareAndExchange(index, null, created);	//returns the winner's chunk if we lost the race
+			if (chunk == null)
+				chunk = created;
+		}
+		return chunk;
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		StreamingUniqueness checker = new StreamingUniqueness(
+				value -> System.out.println("first duplicate: " + value));
+
+		// four producers send disjoint values, then one of them repeats a value another one sent
+		Thread[] producers = new Thread[4];
+		for (int p = 0; p < producers.length; p++) {
+			final int id = p;
+			producers[p] = new Thread(() -> {
+				for (int i = 0; i < 1_000_000; i++)
+					checker.add(i * 4 + id);
+				if (id == 3)
+					checker.add(0);		//already sent by producer 0
+			});
+		}
+		for (Thread t : producers) t.start();
+		for (Thread t : producers) t.join();
+		System.out.println("duplicate seen: " + checker.hasDuplicate() + " " + checker.firstDuplicate());
+
+		System.out.println("stream unique: " + new StreamingUniqueness().addAll(IntStream.range(-1000, 1000).parallel()));
+	}
+
+}
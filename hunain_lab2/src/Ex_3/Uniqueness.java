@@ -23,6 +23,13 @@
 package Ex_3;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ObjIntConsumer;
+
+import harness.CapacityFinder;
 
 /**
  * Demonstration of algorithms for testing element uniqueness.
@@ -33,9 +40,16 @@ import java.util.Arrays;
  */
 class Uniqueness {
 
+  /** Largest power-of-two length of an int array */
+  private static final int MAX_TABLE = 1 << 30;
+
   /** Returns true if there are no duplicate elements in the array. */
   public static boolean unique1(int[] data) {
-    int n = data.length;
+    return unique1(data, data.length);
+  }
+
+  /** Returns true if there are no duplicate elements among data[0..n-1]. */
+  public static boolean unique1(int[] data, int n) {
     for (int j=0; j < n-1; j++)
       for (int k=j+1; k < n; k++)
         if (data[j] == data[k])
@@ -45,7 +59,11 @@ class Uniqueness {
 
   /** Returns true if there are no duplicate elements in the array. */
   public static boolean unique2(int[] data) {
-    int n = data.length;
+    return unique2(data, data.length);
+  }
+
+  /** Returns true if there are no duplicate elements among data[0..n-1]. */
+  public static boolean unique2(int[] data, int n) {
     int[] temp = Arrays.copyOf(data, n);   // make copy of data
     Arrays.sort(temp);                     // and sort the copy
     for (int j=0; j < n-1; j++)
@@ -53,6 +71,108 @@ class Uniqueness {
         return false;                      // found duplicate pair
     return true;                           // if we reach this, elements are unique
   }
+
+  /**
+   * Returns true if there are no duplicate elements in the array.
+   * Elements are inserted into an open-addressing hash set of primitive
+   * ints with linear probing, stopping at the first duplicate, so the
+   * expected running time is O(n) and nothing is boxed. Arrays of more
+   * than 2^29 elements would need a table larger than the biggest
+   * power-of-two int array, so they are checked by unique2 instead.
+   */
+  public static boolean unique3(int[] data) {
+    int n = data.length;
+    long slots = Long.highestOneBit(Math.max(2L, 2L * n - 1)) << 1;   // power of two, at least 2n
+    if (slots > MAX_TABLE)
+      return unique2(data);                // table cannot hold 2n slots
+    int capacity = (int) slots;
+    int mask = capacity - 1;
+    int[] table = new int[capacity];       // 0 marks an empty slot...
+    boolean seenZero = false;              // ...so the value 0 itself is tracked separately
+    for (int j=0; j < n; j++) {
+      int value = data[j];
+      if (value == 0) {
+        if (seenZero) return false;        // found duplicate pair
+        seenZero = true;
+        continue;
+      }
+      int slot = mix(value) & mask;
+      while (table[slot] != 0) {           // probe until an empty slot or a match
+        if (table[slot] == value)
+          return false;                    // found duplicate pair
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = value;
+    }
+    return true;                           // if we reach this, elements are unique
+  }
+
+  /**
+   * Returns true if there are no duplicate elements in the array.
+   * This is unique2 spread across cores: the copy is sorted with
+   * Arrays.parallelSort and the neighboring entries are then compared by
+   * fork/join tasks, which all stop soon after any of them finds a
+   * duplicate pair.
+   */
+  public static boolean unique2Parallel(int[] data) {
+    int n = data.length;
+    int[] temp = Arrays.copyOf(data, n);   // make copy of data
+    Arrays.parallelSort(temp);             // and sort the copy on all cores
+    AtomicBoolean found = new AtomicBoolean(false);
+    ForkJoinPool.commonPool().invoke(new NeighborScan(temp, 0, n-1, found));
+    return !found.get();                   // unique unless some task found a pair
+  }
+
+  /**
+   * Fork/join task that checks the neighboring pairs (temp[j], temp[j+1])
+   * for lo <= j < hi, splitting the range until it is small enough to
+   * scan directly. The shared flag both reports a duplicate and tells the
+   * other tasks to stop early.
+   */
+  private static class NeighborScan extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    /** Ranges no longer than this are scanned without splitting */
+    private static final int THRESHOLD = 1 << 16;
+    /** How many pairs to check between looks at the shared flag */
+    private static final int CHECK_INTERVAL = 1 << 12;
+
+    private final int[] temp;
+    private final int lo, hi;
+    private final AtomicBoolean found;
+
+    NeighborScan(int[] temp, int lo, int hi, AtomicBoolean found) {
+      this.temp = temp;
+      this.lo = lo;
+      this.hi = hi;
+      this.found = found;
+    }
+
+    @Override
+    protected void compute() {
+      if (found.get()) return;             // another task already found a duplicate
+      if (hi - lo > THRESHOLD) {
+        int mid = (lo + hi) >>> 1;
+        invokeAll(new NeighborScan(temp, lo, mid, found), new NeighborScan(temp, mid, hi, found));
+        return;
+      }
+      for (int start = lo; start < hi; start += CHECK_INTERVAL) {
+        if (found.get()) return;
+        int end = Math.min(hi, start + CHECK_INTERVAL);
+        for (int j = start; j < end; j++)
+          if (temp[j] == temp[j+1]) {      // check neighboring entries
+            found.set(true);               // found duplicate pair
+            return;
+          }
+      }
+    }
+  }
+
+  /** Spreads the bits of an int so that runs of nearby values do not cluster in the table. */
+  private static int mix(int value) {
+    int h = value * 0x9E3779B9;            // multiply by 2^32 / golden ratio
+    return h ^ (h >>> 16);
+  }
   
   public static void main(String[] args) {
 	  	/* Key considerations for this implementation of main is that n (array size) was changed from incrementing by 1 to being doubled.
@@ -61,115 +181,22 @@ class Uniqueness {
 	  	 * was changed to 0.6 seconds as the efficient or fast algorithm exhausted the allocated heap memory before even breaking
 	  	 * 1 second and so aiming for 60 seconds would have required far more memory then is necessary to convey the rate of growth
 	  	 * for each function.
+	  	 * The doubling then bisection search itself now lives in harness.CapacityFinder, which times with nanoTime,
+	  	 * warms up first and takes the median of repeated runs.
 	  	 * */
-	    int n = 2;
-	    int priorN = 2;
-	    int lowBound = 0;
-	    int highBound = 0;
-	  	int[] uniqList = {0, -1};
-	    
-	    //removed choice of n, trials selection, not relevant for this question
-	    long elapsed = 0;  // remember the original starting value
-	    int repeats = 0; //used to track any repeats as high-low becomes 0
-	    
-	    // let's run version 2 (the quicker one) first, still the faster one even when copied over
+	    ObjIntConsumer<int[]> uniqueInput = (uniqList, n) -> {		//n distinct values 0, -1, ..., -(n-1)
+	    	for (int i = 0; i < n; i++) {
+	    		uniqList[i] = 0 - i;
+	    	}
+	    };
+
 	    System.out.println("Testing unique1...");
-	    while (elapsed <= 600 && elapsed != -404) { //im setting the -404 as an informal exit condition to assign when we've hit the largest
-	      long startTime = System.currentTimeMillis();
-	      boolean result = unique1(uniqList);
-	      long endTime = System.currentTimeMillis();
-	      elapsed = endTime - startTime;
-	      System.out.println(String.format("n: %9d took %12d milliseconds", n, elapsed));
-	      
-	      
-	      if (elapsed <= 600  && highBound == 0) {
-	    	  priorN = n;
-	    	  n *= 2; //increase the problem size
-	      } else if (elapsed > 600 && highBound == 0) {
-	    	  if (highBound - lowBound <= 1) {repeats += 1;} else {repeats = 0;}
-	    	  lowBound = priorN;
-	    	  highBound = n;
-	    	  n = lowBound + (highBound - lowBound)/2;
-	    	  elapsed = 0;
-	    	  if (n == lowBound){elapsed = -404;} //in the odd chance our immediate fix does catch exact lowerbound, just end the loop
-	      } else if (elapsed > 600 && highBound != 0) {
-	    	  if (highBound - lowBound <= 1) {repeats += 1;} else {repeats = 0;}
-	    	  priorN = n;
-	    	  highBound = n;
-	    	  n = lowBound + (highBound - lowBound)/2; //if we exceed 600 but never set an upper bound, now is the time to do so 
-	    	  elapsed = 0;								//we keep aiming for the middle value and resetting elapsed 
-	    	  if (n == lowBound){elapsed = -404;}
-	      } else if (elapsed <= 600 && highBound != 0) {
-	    	  if (highBound - lowBound <= 1) {repeats += 1;} else {repeats = 0;}
-	    	  priorN = n;
-	    	  lowBound = n;
-	    	  n = lowBound + (highBound - lowBound)/2;	//this is accomadating and under shoot, we move bounds the other way 
-	    	  elapsed = 0;
-	    	  if (n == lowBound){elapsed = -404;}
-	      } 								// exhaustively we will eventually reach a discrete case that is smaller than 600 getting out largest n
-	      
-	      if (repeats >= 5) {elapsed = -404;} //if we start spiraling on one number, just accept its the largest N
-	       
-	      uniqList = new int[n];
-	      for (int i = 0; i < n; i++) {
-	    	  uniqList[i] = 0 - i;
-	      }    
-	    }
+	    int n = new CapacityFinder<>(int[]::new, uniqueInput, Uniqueness::unique1, 1, 3).largestWithin(600, TimeUnit.MILLISECONDS, System.out);
 	    System.out.println(String.format("Largest n under 0.6 seconds is %9d", n));
 
 	    System.out.println("Testing unique2...");
-	    n = 2;                               // restore n to its start value as well as out priors and bounds
-	    priorN = 2;
-	    lowBound = 0;
-	    highBound = 0;
-	    uniqList = new int[]{0, -1};		//reset array back to default size and values
-	    elapsed = 0;
-	    repeats = 0;
-	    
-	    while (elapsed <= 600) {
-	      long startTime = System.currentTimeMillis();
-	      boolean result = unique2(uniqList);
-	      long endTime = System.currentTimeMillis();
-	      elapsed = endTime - startTime;
-	      System.out.println(String.format("n: %9d took %12d milliseconds", n, elapsed));
-
-	      
-	      if (elapsed <= 600  && highBound == 0) {
-	    	  priorN = n;
-	    	  n *= 2; //increase the problem size
-	      } else if (elapsed > 600 && highBound == 0) {
-	    	  if (highBound - lowBound <= 1) {repeats += 1;} else {repeats = 0;}
-	    	  lowBound = priorN;
-	    	  highBound = n;
-	    	  n = lowBound + (highBound - lowBound)/2;
-	    	  elapsed = 0;
-	    	  if (n == lowBound){elapsed = -404;} //in the odd chance our immediate fix does catch exact lowerbound, just end the loop
-	      } else if (elapsed > 600 && highBound != 0) {
-	    	  if (highBound - lowBound <= 1) {repeats += 1;} else {repeats = 0;}
-	    	  priorN = n;
-	    	  highBound = n;
-	    	  n = lowBound + (highBound - lowBound)/2; //if we exceed 600 but never set an upper bound, now is the time to do so 
-	    	  elapsed = 0;								//we keep aiming for the middle value and resetting elapsed 
-	    	  if (n == lowBound){elapsed = -404;}
-	      } else if (elapsed <= 600 && highBound != 0) {
-	    	  if (highBound - lowBound <= 1) {repeats += 1;} else {repeats = 0;}
-	    	  priorN = n;
-	    	  lowBound = n;
-	    	  n = lowBound + (highBound - lowBound)/2;	//this is accomadating and under shoot, we move bounds the other way 
-	    	  elapsed = 0;
-	    	  if (n == lowBound){elapsed = -404;}
-	      } 								// exhaustively we will eventually reach a discrete case that is smaller than 600 getting out largest n
-	      
-	      if (repeats >= 5) {break;} //if we start spiraling on one number, just accept its the largest N
-	      
-	      uniqList = new int[n];
-	      for (int i = 0; i < n; i++) {
-	    	  uniqList[i] = 0 - i;
-	      }
-	    }
+	    n = new CapacityFinder<>(int[]::new, uniqueInput, Uniqueness::unique2, 1, 3).largestWithin(600, TimeUnit.MILLISECONDS, System.out);
 	    System.out.println(String.format("Largest n under 0.6 seconds is %9d", n));
-	    
   }
-  
 
 }
@@ -0,0 +1,197 @@
+package harness;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Finds the largest input size an algorithm can handle within a time
+ * budget, the "largest n under 600 ms" experiment of the lab exercises.
+ *
+ * The size is doubled until a run goes over budget and the last two sizes
+ * are then bisected down to a single n. Each size is timed with nanoTime
+ * over a few warmup runs (so the JIT has compiled the algorithm) followed
+ * by repeated runs whose median is compared to the budget, which keeps a
+ * single GC pause from deciding the answer.
+ *
+ * One buffer is allocated at the largest size tried so far and reused for
+ * every smaller size: each size fills only the first n entries and passes
+ * the buffer with n to the algorithm, so a probe does not allocate and
+ * garbage collection of old inputs does not land in the timings. The
+ * buffer is reused for all runs of a size, so the algorithm must not
+ * modify it. A size whose buffer or run does not fit in the heap counts
+ * as over budget.
+ *
+ * @param <T>  type of the algorithm's input buffer, e.g. int[]
+ */
+public class CapacityFinder<T> {
+	private final IntFunction<T> allocator;
+	private final ObjIntConsumer<T> filler;
+	private final Algorithm<? super T> algorithm;
+	private final int warmups;
+	private final int repeats;
+
+	/** The shared input buffer, or null before the first size is tried */
+	private T buffer;
+	/** Number of entries the buffer can hold */
+	private int capacity;
+
+	/** Holds each result so the JIT cannot discard the work that produced it */
+	private volatile Object sink;
+
+	/**
+	 * The code being measured, run on the first n entries of the buffer.
+	 * @param <T>  type of the input buffer
+	 */
+	@FunctionalInterface
+	public interface Algorithm<T> {
+		/**
+		 * Runs the algorithm on an input of size n.
+		 * @param buffer  holds the input in its first n entries
+		 * @param n       the input size
+		 * @return the result, which is kept so the work is not optimized away
+		 */
+		Object apply(T buffer, int n);
+	}
+
+	/**
+	 * Creates a finder with 2 warmup runs and 5 measured runs per size.
+	 * @param allocator  creates a buffer that holds n entries, e.g. int[]::new
+	 * @param filler     writes the input of size n into the first n entries of the buffer
+	 * @param algorithm  the code being measured
+	 */
+	public CapacityFinder(IntFunction<T> allocator, ObjIntConsumer<T> filler, Algorithm<? super T> algorithm) {
+		this(allocator, filler, algorithm, 2, 5);
+	}
+
+	/**
+	 * Creates a finder.
+	 * @param allocator  creates a buffer that holds n entries, e.g. int[]::new
+	 * @param filler     writes the input of size n into the first n entries of the buffer
+	 * @param algorithm  the code being measured
+	 * @param warmups    untimed runs before measuring each size
+	 * @param repeats    timed runs per size, whose median is used
+	 * @throws IllegalArgumentException if warmups is negative or repeats is not positive
+	 */
+	public CapacityFinder(IntFunction<T> allocator, ObjIntConsumer<T> filler, Algorithm<? super T> algorithm,
+			int warmups, int repeats) {
+		if (warmups < 0 || repeats < 1)
+			throw new IllegalArgumentException("Need warmups >= 0 and repeats >= 1");
+		this.allocator = allocator;
+		this.filler = filler;
+		this.algorithm = algorithm;
+		this.warmups = warmups;
+		this.repeats = repeats;
+	}
+
+	/**
+	 * Returns the median running time for an input of size n.
+	 * @param n  the input size
+	 * @return the median of the measured runs, in nanoseconds
+	 */
+	public long measure(int n) {
+		return median(time(input(n), n, repeats, Long.MAX_VALUE));
+	}
+
+	/**
+	 * Returns the largest n whose median running time is within the budget.
+	 * @param budget  the time budget
+	 * @param unit    unit of the budget
+	 * @return the largest n that fits, or 0 if not even n = 1 fits
+	 */
+	public int largestWithin(long budget, TimeUnit unit) {
+		return largestWithin(budget, unit, null);
+	}
+
+	/**
+	 * Returns the largest n whose median running time is within the budget,
+	 * printing the time taken for every size tried.
+	 * @param budget    the time budget
+	 * @param unit      unit of the budget
+	 * @param progress  where to print each size tried, or null for no output
+	 * @return the largest n that fits, or 0 if not even n = 1 fits
+	 */
+	public int largestWithin(long budget, TimeUnit unit, PrintStream progress) {
+		long budgetNanos = unit.toNanos(budget);
+		int low = 0;				//largest size known to fit
+		int high = -1;				//smallest size known not to fit, -1 until one is found
+		int n = 1;
+		while (high < 0) {			//doubling phase
+			if (fits(n, budgetNanos, progress)) {
+				low = n;
+				if (n == Integer.MAX_VALUE)
+					return n;
+				n = (n > Integer.MAX_VALUE / 2) ? Integer.MAX_VALUE : 2 * n;
+			} else
+				high = n;
+		}
+		while (high - low > 1) {	//bisection phase
+			int mid = low + (high - low) / 2;
+			if (fits(mid, budgetNanos, progress))
+				low = mid;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/** Tells whether size n fits the budget, stopping as soon as the median is decided. */
+	private boolean fits(int n, long budgetNanos, PrintStream progress) {
+		long[] times;
+		try {
+			times = time(input(n), n, repeats, budgetNanos);
+		} catch (OutOfMemoryError e) {
+			if (progress != null)
+				progress.println(String.format("n: %10d ran out of memory", n));
+			return false;
+		}
+		long median = median(times);
+		if (progress != null)
+			progress.println(String.format("n: %10d took %10.3f milliseconds", n, median / 1e6));
+		return median <= budgetNanos;
+	}
+
+	/**
+	 * Returns the buffer holding the input of size n, replacing it with a
+	 * buffer of exactly n entries only when n is larger than any size so far.
+	 */
+	private T input(int n) {
+		if (buffer == null || n > capacity) {
+			buffer = null;				//let the old buffer be collected before allocating the new one
+			buffer = allocator.apply(n);
+			capacity = n;
+		}
+		filler.accept(buffer, n);
+		return buffer;
+	}
+
+	/**
+	 * Runs the warmups, then times up to count runs on the same input. Once
+	 * a majority of the runs fall on the same side of the budget the median
+	 * is decided, and the times measured so far are returned.
+	 */
+	private long[] time(T input, int n, int count, long budgetNanos) {
+		for (int i = 0; i < warmups; i++)
+			sink = algorithm.apply(input, n);
+		long[] times = new long[count];
+		int over = 0, within = 0;
+		int majority = count / 2 + 1;
+		int runs = 0;
+		while (runs < count && over < majority && within < majority) {
+			long start = System.nanoTime();
+			sink = algorithm.apply(input, n);
+			times[runs] = System.nanoTime() - start;
+			if (times[runs++] > budgetNanos) over++; else within++;
+		}
+		return Arrays.copyOf(times, runs);
+	}
+
+	/** Returns the median of the times, sorting them in place. */
+	private static long median(long[] times) {
+		Arrays.sort(times);
+		return times[times.length / 2];
+	}
+
+}